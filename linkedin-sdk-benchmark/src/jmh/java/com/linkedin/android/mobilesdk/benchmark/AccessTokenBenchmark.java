@@ -0,0 +1,62 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.benchmark;
+
+import com.linkedin.android.mobilesdk.AccessToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the {@link AccessToken}, as done when the session is saved and restored.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccessTokenBenchmark {
+
+  private AccessToken accessToken;
+  private String serialized;
+
+  @Setup
+  public void setUp() {
+    accessToken = new AccessToken("AQXdSP_W41_UPs5ioT_t8HESyODB4FqbkJ8LrV_5mff4gPODzOYR5oOmGWzP5GmNr7FHkR3ZLmBNNGUUxTf4zG",
+        1497359965000L);
+    serialized = accessToken.toString();
+  }
+
+  @Benchmark
+  public String serialize() {
+    return accessToken.toString();
+  }
+
+  @Benchmark
+  public AccessToken deserialize() {
+    return AccessToken.buildAccessToken(serialized);
+  }
+
+  @Benchmark
+  public AccessToken roundTrip() {
+    return AccessToken.buildAccessToken(accessToken.toString());
+  }
+}
@@ -0,0 +1,79 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.benchmark;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ServerError;
+import com.linkedin.android.mobilesdk.errors.ApiErrorResponse;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error path of an api call: the {@link LIApiError} built from a failed Volley request and the
+ * {@link ApiErrorResponse} parsed from its body.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ApiErrorBenchmark {
+
+  private byte[] errorBody;
+  private ServerError serverError;
+  private ApiErrorResponse errorResponse;
+
+  @Setup
+  public void setUp() throws JSONException {
+    errorBody = Payloads.errorJson().getBytes(Payloads.UTF_8);
+    serverError = new ServerError(new NetworkResponse(401, errorBody, Collections.<String, String>emptyMap(), false));
+    errorResponse = ApiErrorResponse.build(errorBody);
+  }
+
+  @Benchmark
+  public ApiErrorResponse buildErrorResponse() throws JSONException {
+    return ApiErrorResponse.build(errorBody);
+  }
+
+  @Benchmark
+  public void errorResponseGetters(Blackhole blackhole) {
+    blackhole.consume(errorResponse.getErrorCode());
+    blackhole.consume(errorResponse.getMessage());
+    blackhole.consume(errorResponse.getRequestId());
+    blackhole.consume(errorResponse.getStatus());
+    blackhole.consume(errorResponse.getTimestamp());
+  }
+
+  @Benchmark
+  public LIApiError buildLiApiError() {
+    return LIApiError.buildLiApiError(serverError);
+  }
+
+  @Benchmark
+  public LIApiError buildLiApiErrorWithoutResponse() {
+    return new LIApiError(LIApiError.ErrorType.accessTokenIsNotSet, "access toke is not set", null);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.benchmark;
+
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApiResponse} construction and decoding, per payload size. The eager* methods are the
+ * baseline: the response as it was built before it was decoded lazily, with the body decoded to
+ * a String and wrapped in a json envelope on every call, read or not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiResponseBenchmark {
+
+  @Param({"SMALL", "MEDIUM", "LARGE"})
+  public Payloads.Size size;
+
+  private JSONObject serialized;
+  private byte[] body;
+
+  @Setup
+  public void setUp() throws JSONException {
+    String json = Payloads.json(size);
+    body = json.getBytes(Payloads.UTF_8);
+    serialized = new JSONObject(new ApiResponse(200, json, "").toString());
+  }
+
+  /**
+   * what a call costs when the caller does not read the body, or reads the bytes
+   */
+  @Benchmark
+  public ApiResponse lazyApiResponse() {
+    return new ApiResponse(200, body, "UTF-8", "");
+  }
+
+  @Benchmark
+  public ApiResponse eagerApiResponse() throws JSONException {
+    return buildEagerly(body);
+  }
+
+  @Benchmark
+  public JSONObject eagerGetResponseDataAsJson() throws JSONException {
+    return buildEagerly(body).getResponseDataAsJson();
+  }
+
+  @Benchmark
+  public ApiResponse buildApiResponse() {
+    return ApiResponse.buildApiResponse(serialized);
+  }
+
+  /**
+   * the path every api call takes when the caller reads the json: decode and parse the raw body
+   */
+  @Benchmark
+  public JSONObject getResponseDataAsJson() {
+    return new ApiResponse(200, body, "UTF-8", "").getResponseDataAsJson();
+  }
+
+  @Benchmark
+  public String getResponseDataAsString() {
+    return new ApiResponse(200, body, "UTF-8", "").getResponseDataAsString();
+  }
+
+  /**
+   * the decoding the former JsonObjectRequest based APIHelper did for every response
+   */
+  private static ApiResponse buildEagerly(byte[] body) throws JSONException {
+    JSONObject envelope = new JSONObject();
+    envelope.put("StatusCode", 200);
+    envelope.put("responseData", new String(body, Payloads.UTF_8));
+    return ApiResponse.buildApiResponse(envelope);
+  }
+}
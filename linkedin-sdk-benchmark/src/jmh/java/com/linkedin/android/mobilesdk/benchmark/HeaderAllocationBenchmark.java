@@ -0,0 +1,50 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.benchmark;
+
+import com.linkedin.android.mobilesdk.internals.ApiHeaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes allocated per call for the header block, see gc.alloc.rate.norm: built for every request
+ * versus shared per access token.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeaderAllocationBenchmark {
+
+  private final String accessToken = "AQXdSP_W41_UPs5ioT_t8HESyODB4FqbkJ8LrV_5mff4gPODzOYR5oOmGWzP5GmNr7FHkR3ZLmBNNGUUxTf4zG";
+
+  @Benchmark
+  public Map<String, String> perCall() {
+    return ApiHeaders.build(accessToken);
+  }
+
+  @Benchmark
+  public Map<String, String> perToken() {
+    return ApiHeaders.forToken(accessToken);
+  }
+}
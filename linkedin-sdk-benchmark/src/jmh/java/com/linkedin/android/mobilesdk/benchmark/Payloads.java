@@ -0,0 +1,77 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.benchmark;
+
+import java.nio.charset.Charset;
+
+/**
+ * Json bodies shaped like LinkedIn REST api responses.
+ */
+public final class Payloads {
+
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /**
+   * SMALL is a single profile, MEDIUM a page of connections and LARGE a full connection list.
+   */
+  public enum Size {
+    SMALL(0),
+    MEDIUM(50),
+    LARGE(1000);
+
+    final int connections;
+
+    Size(int connections) {
+      this.connections = connections;
+    }
+  }
+
+  private Payloads() {
+  }
+
+  static String json(Size size) {
+    StringBuilder json = new StringBuilder(256 + size.connections * 256);
+    json.append('{');
+    appendProfile(json, 0);
+    if (size.connections > 0) {
+      json.append(",\"connections\":{\"_total\":").append(size.connections).append(",\"values\":[");
+      for (int i = 1; i <= size.connections; i++) {
+        if (i > 1) {
+          json.append(',');
+        }
+        json.append('{');
+        appendProfile(json, i);
+        json.append('}');
+      }
+      json.append("]}");
+    }
+    return json.append('}').toString();
+  }
+
+  private static void appendProfile(StringBuilder json, int id) {
+    json.append("\"id\":\"aBc").append(id).append("XyZ\",")
+        .append("\"firstName\":\"Jos\\u00e9\",")
+        .append("\"lastName\":\"Doe-").append(id).append("\",")
+        .append("\"headline\":\"Senior Software Engineer at Example \\u2013 building mobile things\",")
+        .append("\"numConnections\":").append(500 + id).append(',')
+        .append("\"publicProfileUrl\":\"https://www.linkedin.com/in/jdoe").append(id).append('"');
+  }
+
+  static String errorJson() {
+    return "{\"errorCode\":0,\"message\":\"Unable to verify access token\",\"requestId\":\"X9Q2LM7K1A\","
+        + "\"status\":401,\"timestamp\":1497359965000}";
+  }
+}
@@ -0,0 +1,53 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.benchmark;
+
+import com.linkedin.android.mobilesdk.internals.ApiHeaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call work that does not depend on the response: the LinkedIn headers and the scope string.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RequestSetupBenchmark {
+
+  private final String accessToken = "AQXdSP_W41_UPs5ioT_t8HESyODB4FqbkJ8LrV_5mff4gPODzOYR5oOmGWzP5GmNr7FHkR3ZLmBNNGUUxTf4zG";
+  private final com.linkedin.android.mobilesdk.utils.Scope scope = com.linkedin.android.mobilesdk.utils.Scope.build(
+      com.linkedin.android.mobilesdk.utils.Scope.R_BASICPROFILE,
+      com.linkedin.android.mobilesdk.utils.Scope.R_EMAILADDRESS,
+      com.linkedin.android.mobilesdk.utils.Scope.W_SHARE);
+
+  @Benchmark
+  public Map<String, String> liHeaders() {
+    return ApiHeaders.build(accessToken);
+  }
+
+  @Benchmark
+  public String createScope() {
+    return scope.createScope();
+  }
+}
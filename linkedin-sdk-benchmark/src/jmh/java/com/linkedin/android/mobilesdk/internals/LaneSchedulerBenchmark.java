@@ -0,0 +1,149 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import com.android.volley.ExecutorDelivery;
+import com.android.volley.Network;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.toolbox.NoCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a HIGH priority call while NORMAL calls keep every network thread busy, with and
+ * without a reserved thread. The sample-time mode reports the percentiles; compare p0.95.
+ * <p>
+ * Lives in the internals package because {@link LaneScheduler} is package-private. The network
+ * answers every request after a fixed service time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LaneSchedulerBenchmark {
+
+  private static final int NETWORK_THREAD_COUNT = 4;
+  private static final long SERVICE_TIME_MS = 20;
+  private static final long LOW_PRIORITY_AGING_MS = 10000;
+  // NORMAL calls kept outstanding, enough to saturate every thread they may use
+  private static final int BACKGROUND_BACKLOG = 4 * NETWORK_THREAD_COUNT;
+
+  @Param({"0", "1"})
+  public int reservedThreadCount;
+
+  private RequestQueue requestQueue;
+  private LaneScheduler laneScheduler;
+  private volatile boolean running;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Executor direct = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        command.run();
+      }
+    };
+    requestQueue = new RequestQueue(new NoCache(), new FixedLatencyNetwork(), NETWORK_THREAD_COUNT,
+        new ExecutorDelivery(direct));
+    laneScheduler = new LaneScheduler(requestQueue, NETWORK_THREAD_COUNT - reservedThreadCount,
+        LOW_PRIORITY_AGING_MS);
+    requestQueue.addRequestFinishedListener(new RequestQueue.RequestFinishedListener<Object>() {
+      @Override
+      public void onRequestFinished(Request<Object> request) {
+        laneScheduler.onRequestFinished(request);
+        if (running && request.getPriority() == Request.Priority.NORMAL) {
+          laneScheduler.add(new BenchRequest(Request.Priority.NORMAL));
+        }
+      }
+    });
+    requestQueue.start();
+    running = true;
+    for (int i = 0; i < BACKGROUND_BACKLOG; i++) {
+      laneScheduler.add(new BenchRequest(Request.Priority.NORMAL));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    running = false;
+    requestQueue.stop();
+  }
+
+  @Benchmark
+  public void interactiveCall() throws InterruptedException {
+    BenchRequest request = new BenchRequest(Request.Priority.HIGH);
+    laneScheduler.add(request);
+    request.await();
+  }
+
+  private static class FixedLatencyNetwork implements Network {
+    @Override
+    public NetworkResponse performRequest(Request<?> request) {
+      try {
+        Thread.sleep(SERVICE_TIME_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new NetworkResponse(200, new byte[0], Collections.<String, String>emptyMap(), false);
+    }
+  }
+
+  private static class BenchRequest extends Request<Object> {
+    private final Priority priority;
+    private final CountDownLatch delivered = new CountDownLatch(1);
+
+    BenchRequest(Priority priority) {
+      super(Method.GET, "https://api.linkedin.com/v1/people/~", null);
+      this.priority = priority;
+      setShouldCache(false);
+    }
+
+    @Override
+    public Priority getPriority() {
+      return priority;
+    }
+
+    @Override
+    protected Response<Object> parseNetworkResponse(NetworkResponse response) {
+      return Response.success(null, null);
+    }
+
+    @Override
+    protected void deliverResponse(Object response) {
+      delivered.countDown();
+    }
+
+    void await() throws InterruptedException {
+      delivered.await();
+    }
+  }
+}
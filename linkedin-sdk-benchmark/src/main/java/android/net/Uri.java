@@ -0,0 +1,42 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package android.net;
+
+import java.net.URI;
+
+/**
+ * JVM stand-in for android.net.Uri, only parsing the host Volley tags its requests with.
+ */
+public final class Uri {
+
+  private final String host;
+
+  private Uri(String host) {
+    this.host = host;
+  }
+
+  public static Uri parse(String uriString) {
+    try {
+      return new Uri(new URI(uriString).getHost());
+    } catch (Exception e) {
+      return new Uri(null);
+    }
+  }
+
+  public String getHost() {
+    return host;
+  }
+}
@@ -0,0 +1,29 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package android.os;
+
+/**
+ * JVM stand-in for android.os.Build. The SDK level is 0, so Volley skips its traffic stats tagging.
+ */
+public final class Build {
+
+  private Build() {
+  }
+
+  public static class VERSION {
+    public static final int SDK_INT = 0;
+  }
+}
@@ -0,0 +1,339 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a streaming TypeAdapter for every class annotated with
+ * com.linkedin.android.mobilesdk.binding.JsonModel.
+ * <p>
+ * For a class com.example.Profile the adapter com.example.Profile_JsonAdapter is generated; it reads
+ * the json with android.util.JsonReader and assigns the fields directly, without reflection and
+ * without an intermediate JSONObject. Fields inherited from superclasses are bound as well, as long
+ * as the adapter can access them.
+ */
+public class JsonModelProcessor extends AbstractProcessor {
+
+  private static final String BINDING_PACKAGE = "com.linkedin.android.mobilesdk.binding";
+  private static final String JSON_MODEL = BINDING_PACKAGE + ".JsonModel";
+  private static final String JSON_FIELD = BINDING_PACKAGE + ".JsonField";
+  private static final String TYPE_ADAPTERS = BINDING_PACKAGE + ".TypeAdapters";
+  private static final String ADAPTER_SUFFIX = "_JsonAdapter";
+
+  private Messager messager;
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return new HashSet<>(Arrays.asList(JSON_MODEL, JSON_FIELD));
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    messager = processingEnv.getMessager();
+    TypeElement jsonModel = processingEnv.getElementUtils().getTypeElement(JSON_MODEL);
+    if (jsonModel == null) {
+      return false;
+    }
+    for (Element element : roundEnv.getElementsAnnotatedWith(jsonModel)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "@JsonModel can only be applied to classes", element);
+        continue;
+      }
+      try {
+        generateAdapter((TypeElement) element);
+      } catch (IOException e) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "unable to write adapter: " + e.getMessage(), element);
+      }
+    }
+    return true;
+  }
+
+  private void generateAdapter(TypeElement model) throws IOException {
+    if (model.getModifiers().contains(Modifier.PRIVATE) || model.getModifiers().contains(Modifier.ABSTRACT)) {
+      messager.printMessage(Diagnostic.Kind.ERROR, "@JsonModel classes must be non-private and concrete", model);
+      return;
+    }
+    if (model.getNestingKind().isNested() && !model.getModifiers().contains(Modifier.STATIC)) {
+      messager.printMessage(Diagnostic.Kind.ERROR, "nested @JsonModel classes must be static", model);
+      return;
+    }
+    if (!hasNoArgConstructor(model)) {
+      messager.printMessage(Diagnostic.Kind.ERROR, "@JsonModel classes need a non-private no-arg constructor", model);
+      return;
+    }
+
+    List<String> cases = new ArrayList<>();
+    Set<String> fieldNames = new HashSet<>();
+    Set<String> jsonNames = new HashSet<>();
+    boolean valid = true;
+    for (VariableElement field : bindableFields(model)) {
+      Set<Modifier> modifiers = field.getModifiers();
+      if (!fieldNames.add(field.getSimpleName().toString())) {
+        // hidden by a field of a subclass
+        continue;
+      }
+      if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "@JsonModel fields must not be private or final", fieldSite(model, field));
+        valid = false;
+        continue;
+      }
+      if (field.getEnclosingElement() != model && !modifiers.contains(Modifier.PUBLIC)
+          && !getPackage(field).equals(getPackage(model))) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "inherited @JsonModel field " + field.getSimpleName()
+            + " must be public or declared in the same package", fieldSite(model, field));
+        valid = false;
+        continue;
+      }
+      if (!jsonNames.add(jsonName(field))) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "duplicate json name \"" + jsonName(field) + "\"", fieldSite(model, field));
+        valid = false;
+        continue;
+      }
+      String reader = readExpression(field.asType());
+      if (reader == null) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "unsupported @JsonModel field type " + field.asType(), fieldSite(model, field));
+        valid = false;
+        continue;
+      }
+      cases.add("        case \"" + escape(jsonName(field)) + "\":\n"
+          + "          result." + field.getSimpleName() + " = " + reader + ";\n"
+          + "          break;\n");
+    }
+    if (!valid) {
+      return;
+    }
+
+    String packageName = getPackage(model).getQualifiedName().toString();
+    String modelName = model.getQualifiedName().toString();
+    String adapterName = adapterSimpleName(model);
+
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("import android.util.JsonReader;\n")
+        .append("import ").append(TYPE_ADAPTERS).append(";\n")
+        .append("import ").append(BINDING_PACKAGE).append(".TypeAdapter;\n\n")
+        .append("import java.io.IOException;\n\n")
+        .append("/**\n * Generated by JsonModelProcessor, do not edit.\n */\n")
+        .append("public final class ").append(adapterName).append(" implements TypeAdapter<").append(modelName).append("> {\n\n")
+        .append("  public static final ").append(adapterName).append(" INSTANCE = new ").append(adapterName).append("();\n\n")
+        .append("  private ").append(adapterName).append("() {\n  }\n\n")
+        .append("  @Override\n")
+        .append("  public ").append(modelName).append(" read(JsonReader reader) throws IOException {\n")
+        .append("    if (TypeAdapters.isNull(reader)) {\n      return null;\n    }\n")
+        .append("    ").append(modelName).append(" result = new ").append(modelName).append("();\n")
+        .append("    reader.beginObject();\n")
+        .append("    while (reader.hasNext()) {\n")
+        .append("      switch (reader.nextName()) {\n");
+    for (String c : cases) {
+      source.append(c);
+    }
+    source.append("        default:\n          reader.skipValue();\n          break;\n")
+        .append("      }\n    }\n")
+        .append("    reader.endObject();\n")
+        .append("    return result;\n  }\n}\n");
+
+    String qualifiedAdapterName = packageName.isEmpty() ? adapterName : packageName + "." + adapterName;
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedAdapterName, model);
+    Writer writer = file.openWriter();
+    try {
+      writer.write(source.toString());
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * @return the expression reading a value of the given type from "reader", or null if the type
+   * is not supported
+   */
+  private String readExpression(TypeMirror type) {
+    switch (type.getKind()) {
+      case INT:
+        return "TypeAdapters.readInt(reader)";
+      case LONG:
+        return "TypeAdapters.readLong(reader)";
+      case BOOLEAN:
+        return "TypeAdapters.readBoolean(reader)";
+      case DOUBLE:
+        return "TypeAdapters.readDouble(reader)";
+      case DECLARED:
+        String adapter = adapterExpression(type);
+        if (adapter != null) {
+          return adapter + ".read(reader)";
+        }
+        DeclaredType declaredType = (DeclaredType) type;
+        TypeElement element = (TypeElement) declaredType.asElement();
+        if (element.getQualifiedName().contentEquals("java.util.List") && declaredType.getTypeArguments().size() == 1) {
+          String elementAdapter = adapterExpression(declaredType.getTypeArguments().get(0));
+          if (elementAdapter != null) {
+            return "TypeAdapters.readList(reader, " + elementAdapter + ")";
+          }
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @return an expression evaluating to the TypeAdapter of a boxed primitive, String or
+   * JsonModel type, or null for any other type
+   */
+  private String adapterExpression(TypeMirror type) {
+    if (!(type instanceof DeclaredType)) {
+      return null;
+    }
+    TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+    String name = element.getQualifiedName().toString();
+    switch (name) {
+      case "java.lang.String":
+        return "TypeAdapters.STRING";
+      case "java.lang.Integer":
+        return "TypeAdapters.INTEGER";
+      case "java.lang.Long":
+        return "TypeAdapters.LONG";
+      case "java.lang.Boolean":
+        return "TypeAdapters.BOOLEAN";
+      case "java.lang.Double":
+        return "TypeAdapters.DOUBLE";
+      default:
+        if (findAnnotation(element, JSON_MODEL) != null) {
+          String packageName = getPackage(element).getQualifiedName().toString();
+          return (packageName.isEmpty() ? "" : packageName + ".") + adapterSimpleName(element) + ".INSTANCE";
+        }
+        return null;
+    }
+  }
+
+  private String jsonName(VariableElement field) {
+    AnnotationMirror jsonField = findAnnotation(field, JSON_FIELD);
+    if (jsonField != null) {
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+          : jsonField.getElementValues().entrySet()) {
+        if (entry.getKey().getSimpleName().contentEquals("value")) {
+          return (String) entry.getValue().getValue();
+        }
+      }
+    }
+    return field.getSimpleName().toString();
+  }
+
+  private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+      if (type.getQualifiedName().contentEquals(annotationName)) {
+        return mirror;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the instance fields of the model and of its superclasses, the model's first
+   */
+  private static List<VariableElement> bindableFields(TypeElement model) {
+    List<VariableElement> fields = new ArrayList<>();
+    TypeElement type = model;
+    while (type != null && !type.getQualifiedName().contentEquals("java.lang.Object")) {
+      for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.TRANSIENT)) {
+          fields.add(field);
+        }
+      }
+      TypeMirror superclass = type.getSuperclass();
+      type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+    return fields;
+  }
+
+  /**
+   * @return the element errors about the field are reported on: the model for an inherited field,
+   * which may be bound by several models
+   */
+  private static Element fieldSite(TypeElement model, VariableElement field) {
+    return field.getEnclosingElement() == model ? field : model;
+  }
+
+  private static boolean hasNoArgConstructor(TypeElement model) {
+    List<ExecutableElement> constructors = ElementFilter.constructorsIn(model.getEnclosedElements());
+    for (ExecutableElement constructor : constructors) {
+      if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Outer.Inner becomes Outer_Inner_JsonAdapter, matching the lookup in TypeAdapters.get()
+   */
+  private static String adapterSimpleName(TypeElement model) {
+    StringBuilder name = new StringBuilder(model.getSimpleName());
+    Element enclosing = model.getEnclosingElement();
+    while (enclosing.getKind() != ElementKind.PACKAGE) {
+      name.insert(0, enclosing.getSimpleName() + "_");
+      enclosing = enclosing.getEnclosingElement();
+    }
+    return name.append(ADAPTER_SUFFIX).toString();
+  }
+
+  private static PackageElement getPackage(Element element) {
+    while (element.getKind() != ElementKind.PACKAGE) {
+      element = element.getEnclosingElement();
+    }
+    return (PackageElement) element;
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+}
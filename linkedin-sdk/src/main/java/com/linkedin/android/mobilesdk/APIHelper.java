@@ -16,30 +16,38 @@
 package com.linkedin.android.mobilesdk;
 
 import android.content.Context;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.text.TextUtils;
 
-import com.android.volley.AuthFailureError;
-import com.android.volley.NetworkResponse;
-import com.android.volley.ParseError;
 import com.android.volley.Request;
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.HttpHeaderParser;
-import com.android.volley.toolbox.JsonObjectRequest;
+import com.linkedin.android.mobilesdk.binding.TypeAdapter;
+import com.linkedin.android.mobilesdk.binding.TypeAdapters;
 import com.linkedin.android.mobilesdk.errors.LIApiError;
-import com.linkedin.android.mobilesdk.internals.BuildConfig;
+import com.linkedin.android.mobilesdk.internals.ApiHeaders;
+import com.linkedin.android.mobilesdk.internals.ApiResponseRequest;
+import com.linkedin.android.mobilesdk.internals.DownloadRequest;
 import com.linkedin.android.mobilesdk.internals.QueueManager;
+import com.linkedin.android.mobilesdk.internals.RequestCoalescer;
+import com.linkedin.android.mobilesdk.internals.RequestDispatcher;
+import com.linkedin.android.mobilesdk.internals.TypedApiRequest;
+import com.linkedin.android.mobilesdk.listeners.ApiEventListener;
 import com.linkedin.android.mobilesdk.listeners.ApiListener;
 import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+import com.linkedin.android.mobilesdk.listeners.DownloadListener;
+import com.linkedin.android.mobilesdk.listeners.TypedApiListener;
+import com.linkedin.android.mobilesdk.transport.Transport;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.UnsupportedEncodingException;
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Helper class to make authenticated REST api calls to retrieve LinkedIn data.
@@ -51,94 +59,234 @@ import java.util.Map;
  */
 public class APIHelper {
 
-  private static final String LOCATION_HEADER = "Location";
-  private static final String HTTP_STATUS_CODE = "StatusCode";
-  private static final String DATA = "responseData";
-  private static final String HEADER_CONTENT_TYPE = "Content-Type";
-  private static final String HEADER_AUTHORIZATION = "Authorization";
-  private static final String HEADER_SRC = "x-li-src";
-  private static final String HEADER_LI_FORMAT = "x-li-format";
-  private static final String HEADER_LI_VER = "x-li-msdk-ver";
-  private static final String CONTENT_VALUE = "application/json";
-  private static final String HEADER_SRC_VALUE = "msdk";
-  private static final String HEADER_LI_FORMAT_VALUE = "json";
-  private static final String HEADER_LI_PLFM = "x-li-plfm";
-  private static final String HEADER_LI_PLFM_ANDROID = "ANDROID_SDK";
+  private static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+  private static final long DEFAULT_MAX_STALE_MS = 24L * 60 * 60 * 1000;
+
+  /**
+   * Controls whether GET responses are kept in the on-disk response cache.
+   */
+  public enum CacheMode {
+    /**
+     * every call goes to the network and nothing is stored (default)
+     */
+    NONE,
+    /**
+     * responses are stored; stale entries are revalidated with If-None-Match / If-Modified-Since
+     * and a 304 is answered from the stored body
+     */
+    REVALIDATE,
+    /**
+     * a stored response is delivered right away and then refreshed from the network, so the
+     * listener may be called twice: first with the cached data, then with the fresh data if it
+     * changed
+     */
+    CACHE_FIRST
+  }
 
   private static APIHelper apiHelper;
 
+  private volatile CacheMode cacheMode = CacheMode.NONE;
+  private volatile long maxStaleMs = DEFAULT_MAX_STALE_MS;
+  private volatile int gzipThreshold = Integer.MAX_VALUE;
+  private volatile boolean decodeOnNetworkThread;
+  private final RequestCoalescer coalescer = new RequestCoalescer();
+  // calls that did not complete yet; they hold their caller weakly
+  private final Set<ApiCall> openCalls = new HashSet<>();
+  private final RequestDispatcher dispatcher;
+  private Outbox outbox;
+
   public static APIHelper getInstance(@NonNull Context ctx) {
     if (apiHelper == null) {
-      apiHelper = new APIHelper();
       QueueManager.initQueueManager(ctx);
+      apiHelper = new APIHelper(QueueManager.getInstance(ctx));
     }
     return apiHelper;
   }
 
+  private APIHelper(QueueManager queueManager) {
+    dispatcher = new RequestDispatcher(queueManager);
+    decodeOnNetworkThread = queueManager.deliversOnMainThread();
+  }
+
+  /**
+   * Returns the APIHelper, sending requests through the given transport.
+   * The transport is chosen when the request queue is created, so it only takes effect on the
+   * first call to getInstance.
+   *
+   * @param ctx
+   * @param transport HTTP engine, e.g. {@link com.linkedin.android.mobilesdk.transport.OkHttpTransport}
+   */
+  public static APIHelper getInstance(@NonNull Context ctx, @NonNull Transport transport) {
+    return getInstance(ctx, new QueueConfig.Builder().setTransport(transport).build());
+  }
+
+  /**
+   * Returns the APIHelper, creating the request queue with the given configuration.
+   * The configuration only takes effect on the first call to getInstance.
+   *
+   * @param ctx
+   * @param queueConfig thread count, buffer pool, cache, transport and delivery executor of the
+   *                    request queue
+   */
+  public static APIHelper getInstance(@NonNull Context ctx, @NonNull QueueConfig queueConfig) {
+    QueueManager.initQueueManager(ctx, queueConfig);
+    return getInstance(ctx);
+  }
+
+  /**
+   * Enables or disables the on-disk response cache for GET requests.
+   * The cache is cleared whenever the session's access token changes.
+   *
+   * @param cacheMode see {@link CacheMode}
+   */
+  public void setCacheMode(@NonNull CacheMode cacheMode) {
+    setCacheMode(cacheMode, DEFAULT_MAX_STALE_MS);
+  }
+
+  /**
+   * @param cacheMode  see {@link CacheMode}
+   * @param maxStaleMs in {@link CacheMode#CACHE_FIRST}, how long a stored response may still be
+   *                   delivered while it is being refreshed
+   */
+  public void setCacheMode(@NonNull CacheMode cacheMode, long maxStaleMs) {
+    this.cacheMode = cacheMode;
+    this.maxStaleMs = maxStaleMs;
+  }
+
+  /**
+   * Gzip-compresses POST and PUT bodies of at least the given size. Responses are always
+   * requested and decoded gzip encoded; request compression is off by default because the server
+   * has no way to advertise support for it.
+   *
+   * @param minBodySize smallest body, in bytes, that is compressed; Integer.MAX_VALUE disables it
+   */
+  public void setGzipThreshold(int minBodySize) {
+    this.gzipThreshold = minBodySize;
+  }
+
+  /**
+   * Response bodies are decoded to json on the network thread when listeners are called on the
+   * main thread, the default, so the main thread does not decode them. With a delivery executor
+   * set in the {@link QueueConfig} they are handed over as raw bytes instead and only decoded when
+   * the listener asks for them. Either default can be overridden here.
+   */
+  public void setDecodeOnNetworkThread(boolean decodeOnNetworkThread) {
+    this.decodeOnNetworkThread = decodeOnNetworkThread;
+  }
+
+  /**
+   * Enables retries with exponential backoff and per-endpoint circuit breakers.
+   * While the circuit of an endpoint is open its calls fail right away with
+   * {@link LIApiError.ErrorType#circuitOpen}.
+   *
+   * @param retryPolicy see {@link RetryPolicy}, null disables retries and circuit breakers (default)
+   */
+  public void setRetryPolicy(@Nullable RetryPolicy retryPolicy) {
+    dispatcher.setRetryPolicy(retryPolicy);
+  }
+
+  /**
+   * Limits the rate at which calls are sent. Calls over the limit wait or fail with
+   * {@link LIApiError.ErrorType#rateLimited}, see {@link RequestOptions.ThrottleMode}.
+   * Throttling responses (429 or Retry-After) lower the rate and pause all calls until the
+   * server's Retry-After time, with or without a policy.
+   *
+   * @param rateLimitPolicy see {@link RateLimitPolicy}, null removes the client side limit (default)
+   */
+  public void setRateLimitPolicy(@Nullable RateLimitPolicy rateLimitPolicy) {
+    dispatcher.setRateLimitPolicy(rateLimitPolicy);
+  }
+
+  /**
+   * Reports the timeline of every call: enqueued, dispatched, first byte, body read, parsed and
+   * delivered, with status code, byte counts and cache/coalescing outcome.
+   * {@link ApiLatencyAggregator} keeps per-endpoint latency
+   * histograms from these events.
+   *
+   * @param apiEventListener see {@link ApiEventListener}, null stops reporting (default)
+   */
+  public void setApiEventListener(@Nullable ApiEventListener apiEventListener) {
+    dispatcher.setApiEventListener(apiEventListener);
+  }
+
   private Map<String, String> getLiHeaders(String accessToken) {
-    HashMap<String, String> headers = new HashMap<>();
-    headers.put(HEADER_CONTENT_TYPE, CONTENT_VALUE);
-    headers.put(HEADER_AUTHORIZATION, "Bearer " + accessToken);
-    headers.put(HEADER_SRC, HEADER_SRC_VALUE);
-    headers.put(HEADER_LI_FORMAT, HEADER_LI_FORMAT_VALUE);
-    headers.put(HEADER_LI_VER, BuildConfig.MSDK_VERSION);
-    headers.put(HEADER_LI_PLFM, HEADER_LI_PLFM_ANDROID);
-
-    return headers;
-  }
-
-  private JsonObjectRequest buildRequest(final String accessToken, int method, String url,
-                                         JSONObject body, @Nullable final ApiListener apiListener) {
-    return new JsonObjectRequest(method,
-        url, body,
-        new Response.Listener<JSONObject>() {
-          @Override
-          public void onResponse(JSONObject response) {
-            if (apiListener != null) {
-              apiListener.onApiSuccess(ApiResponse.buildApiResponse(response));
-            }
-          }
-        },
-        new Response.ErrorListener() {
-          @Override
-          public void onErrorResponse(VolleyError error) {
-            if (apiListener != null) {
-              LIApiError liLIApiError = LIApiError.buildLiApiError(error);
-              apiListener.onApiError(liLIApiError);
-            }
-          }
-        }
-    ) {
-      @Override
-      protected Response<JSONObject> parseNetworkResponse(NetworkResponse response) {
-        try {
-          JSONObject responseData = new JSONObject();
-          responseData.put(HTTP_STATUS_CODE, response.statusCode);
-          String location = response.headers.get(LOCATION_HEADER);
-          if (!TextUtils.isEmpty(location)) {
-            responseData.put(LOCATION_HEADER, location);
-          }
-          if (response.data != null && response.data.length != 0) {
-            String responseDataAsString = new String(response.data, HttpHeaderParser.parseCharset(response.headers));
-            responseData.put(DATA, responseDataAsString);
-
-          }
-          return Response.success(responseData, HttpHeaderParser.parseCacheHeaders(response));
-        } catch (UnsupportedEncodingException e) {
-          return Response.error(new ParseError(e));
-        } catch (JSONException je) {
-          return Response.error(new ParseError(je));
-        }
-      }
+    return ApiHeaders.forToken(accessToken);
+  }
 
-      @Override
-      public Map<String, String> getHeaders() throws AuthFailureError {
-        return getLiHeaders(accessToken);
-      }
-    };
+  private CacheMode getCacheMode(int method) {
+    return method == Request.Method.GET ? cacheMode : CacheMode.NONE;
   }
 
-  private void request(@NonNull Context context, int method, @NonNull String url, @Nullable JSONObject body, @Nullable ApiListener apiListener) {
+  private ApiResponseRequest buildRequest(AccessToken accessToken, int method, String url, JSONObject body,
+                                          RequestOptions options, @Nullable ApiListener apiListener) {
+    CacheMode requestCacheMode = getCacheMode(method);
+    Map<String, String> headers = getLiHeaders(accessToken.getValue());
+    if (options.getIdempotencyKey() != null) {
+      headers = new HashMap<>(headers);
+      headers.put(HEADER_IDEMPOTENCY_KEY, options.getIdempotencyKey());
+    }
+    ApiResponseRequest request = new ApiResponseRequest(method, url, headers, body,
+        requestCacheMode == CacheMode.CACHE_FIRST, maxStaleMs, apiListener);
+    request.setDecodeOnNetworkThread(decodeOnNetworkThread);
+    if (method == Request.Method.POST || method == Request.Method.PUT) {
+      request.setGzipThreshold(gzipThreshold);
+    }
+    request.setShouldCache(requestCacheMode != CacheMode.NONE);
+    request.setPriority(options.getPriority());
+    request.setMaxThrottleWaitMs(options.getThrottleMode() == RequestOptions.ThrottleMode.REJECT
+        ? 0 : options.getMaxThrottleWaitMs());
+    request.setTokenExpiresOn(accessToken.getExpiresOn());
+    return request;
+  }
+
+  private <T> TypedApiRequest<T> buildTypedRequest(AccessToken accessToken, int method, String url, JSONObject body,
+                                                   RequestOptions options, TypeAdapter<T> typeAdapter,
+                                                   @Nullable TypedApiListener<T> apiListener) {
+    CacheMode requestCacheMode = getCacheMode(method);
+    TypedApiRequest<T> request = new TypedApiRequest<>(method, url, getLiHeaders(accessToken.getValue()), body,
+        requestCacheMode == CacheMode.CACHE_FIRST, maxStaleMs, typeAdapter, apiListener);
+    request.setShouldCache(requestCacheMode != CacheMode.NONE);
+    request.setPriority(options.getPriority());
+    request.setMaxThrottleWaitMs(options.getThrottleMode() == RequestOptions.ThrottleMode.REJECT
+        ? 0 : options.getMaxThrottleWaitMs());
+    request.setTokenExpiresOn(accessToken.getExpiresOn());
+    return request;
+  }
+
+  private ApiCall request(@NonNull Context context, int method, @NonNull String url, @Nullable JSONObject body,
+                          @NonNull RequestOptions options, @Nullable ApiListener apiListener) {
+    ApiCall call = openCall(context);
+    request(context, call, method, url, body, options, call.wrap(apiListener));
+    return call;
+  }
+
+  /**
+   * Registers a call made for the given caller, until it completes or is cancelled.
+   */
+  ApiCall openCall(@NonNull Context context) {
+    ApiCall call = new ApiCall(this, context);
+    synchronized (openCalls) {
+      openCalls.add(call);
+    }
+    return call;
+  }
+
+  void closeCall(@NonNull ApiCall call) {
+    synchronized (openCalls) {
+      openCalls.remove(call);
+    }
+  }
+
+  void cancelCall(@NonNull ApiCall call) {
+    closeCall(call);
+    cancelCalls(call);
+  }
+
+  /**
+   * @param tag identifies the caller for {@link #cancelCalls(Object)}
+   */
+  void request(@NonNull Context context, @NonNull Object tag, int method, @NonNull String url, @Nullable JSONObject body,
+               @NonNull RequestOptions options, @Nullable ApiListener apiListener) {
     LISession session = LISessionManager.getInstance(context.getApplicationContext()).getSession();
     if (!session.isValid()) {
       if (apiListener != null) {
@@ -146,9 +294,21 @@ public class APIHelper {
       }
       return;
     }
-    JsonObjectRequest jsonObjectRequest = buildRequest(session.getAccessToken().getValue(), method, url, body, apiListener);
-    jsonObjectRequest.setTag(context);
-    QueueManager.getInstance(context).getRequestQueue().add(jsonObjectRequest);
+    AccessToken accessToken = session.getAccessToken();
+    if (method == Request.Method.GET) {
+      // identical GETs share one request; later callers are attached to the one in flight and
+      // share its options, a queued request cannot be reprioritized
+      RequestCoalescer.Flight flight = coalescer.join(RequestCoalescer.buildKey(method, url, accessToken.getValue()), tag, apiListener);
+      if (flight != null) {
+        ApiResponseRequest apiRequest = buildRequest(accessToken, method, url, null, options, flight);
+        apiRequest.setTag(flight);
+        dispatcher.dispatch(apiRequest);
+      }
+      return;
+    }
+    ApiResponseRequest apiRequest = buildRequest(accessToken, method, url, body, options, apiListener);
+    apiRequest.setTag(tag);
+    dispatcher.dispatch(apiRequest);
   }
 
   /**
@@ -157,9 +317,74 @@ public class APIHelper {
    * @param context
    * @param url         rest api endpoint to call. example: "https://api.linkedin.com/v1/people/~:(first-name,last-name,public-profile-url)"
    * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public ApiCall getRequest(@NonNull Context context, String url, ApiListener apiListener) {
+    return getRequest(context, url, RequestOptions.DEFAULT, apiListener);
+  }
+
+  /**
+   * Helper method to make authenticated HTTP requests to LinkedIn REST api using GET Method
+   *
+   * @param context
+   * @param url         rest api endpoint to call
+   * @param options     per call options such as the priority. A GET identical to one already in
+   *                    flight is attached to it and shares its priority and throttle mode instead
+   * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public ApiCall getRequest(@NonNull Context context, String url, @NonNull RequestOptions options, ApiListener apiListener) {
+    return request(context, Request.Method.GET, url, null, options, apiListener);
+  }
+
+  /**
+   * Helper method to make authenticated HTTP requests to LinkedIn REST api using GET Method,
+   * binding the json response to a {@link com.linkedin.android.mobilesdk.binding.JsonModel} class.
+   * The response is decoded off the main thread, before the listener is called.
+   *
+   * @param context
+   * @param url         rest api endpoint to call
+   * @param type        class annotated with {@link com.linkedin.android.mobilesdk.binding.JsonModel}
+   * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public <T> ApiCall getRequest(@NonNull Context context, String url, @NonNull Class<T> type, TypedApiListener<T> apiListener) {
+    return getRequest(context, url, TypeAdapters.get(type), apiListener);
+  }
+
+  /**
+   * Helper method to make authenticated HTTP requests to LinkedIn REST api using GET Method,
+   * reading the json response with the given adapter.
+   * The response is decoded off the main thread, before the listener is called.
+   *
+   * @param context
+   * @param url         rest api endpoint to call
+   * @param typeAdapter
+   * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public <T> ApiCall getRequest(@NonNull Context context, String url, @NonNull TypeAdapter<T> typeAdapter, TypedApiListener<T> apiListener) {
+    ApiCall call = openCall(context);
+    typedRequest(context, call, url, typeAdapter, call.wrap(apiListener));
+    return call;
+  }
+
+  /**
+   * @param tag identifies the caller for {@link #cancelCalls(Object)}
    */
-  public void getRequest(@NonNull Context context, String url, ApiListener apiListener) {
-    request(context, Request.Method.GET, url, null, apiListener);
+  <T> void typedRequest(@NonNull Context context, @NonNull Object tag, @NonNull String url,
+                        @NonNull TypeAdapter<T> typeAdapter, @Nullable TypedApiListener<T> apiListener) {
+    LISession session = LISessionManager.getInstance(context.getApplicationContext()).getSession();
+    if (!session.isValid()) {
+      if (apiListener != null) {
+        apiListener.onApiError(new LIApiError(LIApiError.ErrorType.accessTokenIsNotSet, "access toke is not set", null));
+      }
+      return;
+    }
+    TypedApiRequest<T> apiRequest = buildTypedRequest(session.getAccessToken(), Request.Method.GET, url, null,
+        RequestOptions.DEFAULT, typeAdapter, apiListener);
+    apiRequest.setTag(tag);
+    dispatcher.dispatch(apiRequest);
   }
 
   /**
@@ -169,9 +394,10 @@ public class APIHelper {
    * @param url
    * @param body
    * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
    */
-  public void postRequest(@NonNull Context context, String url, JSONObject body, ApiListener apiListener) {
-    request(context, Request.Method.POST, url, body, apiListener);
+  public ApiCall postRequest(@NonNull Context context, String url, JSONObject body, ApiListener apiListener) {
+    return postRequest(context, url, body, RequestOptions.DEFAULT, apiListener);
   }
 
   /**
@@ -180,14 +406,32 @@ public class APIHelper {
    * @param context
    * @param url
    * @param body
+   * @param options     per call options such as the priority
    * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
    */
-  public void postRequest(Context context, String url, String body, ApiListener apiListener) {
+  public ApiCall postRequest(@NonNull Context context, String url, JSONObject body, @NonNull RequestOptions options,
+                             ApiListener apiListener) {
+    return request(context, Request.Method.POST, url, body, options, apiListener);
+  }
+
+  /**
+   * Helper method to make authenticated HTTP requests to LinkedIn REST api using POST Method
+   *
+   * @param context
+   * @param url
+   * @param body
+   * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public ApiCall postRequest(Context context, String url, String body, ApiListener apiListener) {
     try {
       JSONObject bodyObject = body != null ? new JSONObject(body) : null;
-      postRequest(context, url, bodyObject, apiListener);
+      return postRequest(context, url, bodyObject, apiListener);
     } catch (JSONException e) {
-      apiListener.onApiError(new LIApiError("Unable to convert body to json object " + e.toString(), e));
+      ApiCall call = openCall(context);
+      call.wrap(apiListener).onApiError(new LIApiError("Unable to convert body to json object " + e.toString(), e));
+      return call;
     }
   }
 
@@ -198,9 +442,25 @@ public class APIHelper {
    * @param url
    * @param body
    * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
    */
-  public void putRequest(Context context, String url, JSONObject body, ApiListener apiListener) {
-    request(context, Request.Method.PUT, url, body, apiListener);
+  public ApiCall putRequest(Context context, String url, JSONObject body, ApiListener apiListener) {
+    return putRequest(context, url, body, RequestOptions.DEFAULT, apiListener);
+  }
+
+  /**
+   * Helper method to make authenticated HTTP requests to LinkedIn REST api using PUT Method
+   *
+   * @param context
+   * @param url
+   * @param body
+   * @param options     per call options such as the priority
+   * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public ApiCall putRequest(@NonNull Context context, String url, JSONObject body, @NonNull RequestOptions options,
+                            ApiListener apiListener) {
+    return request(context, Request.Method.PUT, url, body, options, apiListener);
   }
 
   /**
@@ -211,13 +471,16 @@ public class APIHelper {
    * @param url
    * @param body
    * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
    */
-  public void putRequest(@NonNull Context context, String url, String body, ApiListener apiListener) {
+  public ApiCall putRequest(@NonNull Context context, String url, String body, ApiListener apiListener) {
     try {
       JSONObject bodyObject = body != null ? new JSONObject(body) : null;
-      putRequest(context, url, bodyObject, apiListener);
+      return putRequest(context, url, bodyObject, apiListener);
     } catch (JSONException e) {
-      apiListener.onApiError(new LIApiError("Unable to convert body to json object " + e.toString(), e));
+      ApiCall call = openCall(context);
+      call.wrap(apiListener).onApiError(new LIApiError("Unable to convert body to json object " + e.toString(), e));
+      return call;
     }
   }
 
@@ -227,17 +490,274 @@ public class APIHelper {
    * @param context
    * @param url
    * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public ApiCall deleteRequest(@NonNull Context context, String url, ApiListener apiListener) {
+    return deleteRequest(context, url, RequestOptions.DEFAULT, apiListener);
+  }
+
+  /**
+   * Helper method to make authenticated HTTP requests to LinkedIn REST api using DELETE Method
+   *
+   * @param context
+   * @param url
+   * @param options     per call options such as the priority
+   * @param apiListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public ApiCall deleteRequest(@NonNull Context context, String url, @NonNull RequestOptions options, ApiListener apiListener) {
+    return request(context, Request.Method.DELETE, url, null, options, apiListener);
+  }
+
+  /**
+   * Downloads the response of an authenticated GET to a file. The body is streamed to disk as it
+   * arrives instead of being held in memory, so large exports can be mapped or parsed from the
+   * file afterwards. Downloads are made with HttpURLConnection, not with the transport set in the
+   * {@link QueueConfig}.
+   *
+   * @param context
+   * @param url              rest api endpoint to call
+   * @param file             destination; only replaced once the download completed
+   * @param downloadListener
+   * @return handle of the call, see {@link ApiCall}
+   */
+  public ApiCall downloadRequest(@NonNull Context context, String url, @NonNull File file, DownloadListener downloadListener) {
+    return downloadRequest(context, url, file, Long.MAX_VALUE, downloadListener);
+  }
+
+  /**
+   * Downloads the response of an authenticated GET to a file, see
+   * {@link #downloadRequest(Context, String, File, DownloadListener)}.
+   *
+   * @param context
+   * @param url              rest api endpoint to call
+   * @param file             destination; only replaced once the download completed
+   * @param maxBytes         larger responses fail with {@link LIApiError.ErrorType#responseTooLarge}
+   * @param downloadListener
+   * @return handle of the call, see {@link ApiCall}
    */
-  public void deleteRequest(@NonNull Context context, String url, ApiListener apiListener) {
-    request(context, Request.Method.DELETE, url, null, apiListener);
+  public ApiCall downloadRequest(@NonNull Context context, String url, @NonNull File file, long maxBytes,
+                                 DownloadListener downloadListener) {
+    ApiCall call = openCall(context);
+    DownloadListener listener = call.wrap(downloadListener);
+    LISession session = LISessionManager.getInstance(context.getApplicationContext()).getSession();
+    if (!session.isValid()) {
+      listener.onDownloadError(new LIApiError(LIApiError.ErrorType.accessTokenIsNotSet, "access toke is not set", null));
+      return call;
+    }
+    AccessToken accessToken = session.getAccessToken();
+    DownloadRequest request = new DownloadRequest(url, getLiHeaders(accessToken.getValue()), file, maxBytes,
+        listener);
+    request.setMaxThrottleWaitMs(RequestOptions.DEFAULT.getMaxThrottleWaitMs());
+    request.setTokenExpiresOn(accessToken.getExpiresOn());
+    request.setTag(call);
+    dispatcher.dispatch(request);
+    return call;
   }
 
   /**
-   * cancel any unsent api calls
+   * cancel any api calls made with the given context that did not complete yet
    *
    * @param context
    */
   public void cancelCalls(@NonNull Context context) {
-    QueueManager.getInstance(context).getRequestQueue().cancelAll(context);
+    List<ApiCall> owned = new ArrayList<>();
+    synchronized (openCalls) {
+      for (ApiCall call : openCalls) {
+        if (call.getOwner() == context) {
+          owned.add(call);
+        }
+      }
+    }
+    for (ApiCall call : owned) {
+      call.cancel();
+    }
+  }
+
+  /**
+   * cancels the calls made with the given tag, including delayed calls and retries
+   */
+  void cancelCalls(@NonNull Object tag) {
+    List<RequestCoalescer.Flight> abandoned = coalescer.cancel(tag);
+    for (RequestCoalescer.Flight flight : abandoned) {
+      dispatcher.cancelAll(flight);
+    }
+    dispatcher.cancelAll(tag);
+  }
+
+  /**
+   * Returns the outbox, which keeps POST, PUT and DELETE calls on disk until they went through.
+   * Writes a previous process left in the outbox are replayed from the first call on.
+   *
+   * @param context
+   * @return the outbox of the application
+   * @see Outbox
+   */
+  public synchronized Outbox getOutbox(@NonNull Context context) {
+    if (outbox == null) {
+      outbox = new Outbox(context, this);
+    }
+    return outbox;
+  }
+
+  /**
+   * Makes an authenticated call on the calling thread and waits for its response, for code that
+   * already runs on a worker thread. Rate limiting, retries and circuit breakers apply as for the
+   * other methods; the response cache and the main thread are not involved.
+   *
+   * @param context
+   * @param method   one of {@link Request.Method}
+   * @param url      rest api endpoint to call
+   * @param body     json body, may be null
+   * @param deadline time by which the call, including waits and retries, must have completed
+   * @return the response
+   * @throws LIApiError            if the call failed, or {@link LIApiError.ErrorType#deadlineExceeded}
+   *                               if it did not complete in time
+   * @throws IllegalStateException if called on the main thread
+   */
+  public ApiResponse execute(@NonNull Context context, int method, @NonNull String url, @Nullable JSONObject body,
+                             @NonNull Deadline deadline) throws LIApiError {
+    checkNotMainThread();
+    AccessToken accessToken = getValidAccessToken(context);
+    ApiResponseRequest request = buildRequest(accessToken, method, url, body, RequestOptions.DEFAULT, null);
+    request.setShouldCache(false);
+    return dispatcher.execute(request, deadline.getExpiresAt());
+  }
+
+  /**
+   * Blocking GET binding the json response to a
+   * {@link com.linkedin.android.mobilesdk.binding.JsonModel} class, see
+   * {@link #execute(Context, int, String, JSONObject, Deadline)}.
+   */
+  public <T> T execute(@NonNull Context context, @NonNull String url, @NonNull Class<T> type,
+                       @NonNull Deadline deadline) throws LIApiError {
+    checkNotMainThread();
+    AccessToken accessToken = getValidAccessToken(context);
+    TypedApiRequest<T> request = buildTypedRequest(accessToken, Request.Method.GET, url, null, RequestOptions.DEFAULT,
+        TypeAdapters.get(type), null);
+    request.setShouldCache(false);
+    return dispatcher.execute(request, deadline.getExpiresAt());
+  }
+
+  private static void checkNotMainThread() {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      throw new IllegalStateException("blocking calls must not be made on the main thread");
+    }
+  }
+
+  private static AccessToken getValidAccessToken(Context context) throws LIApiError {
+    LISession session = LISessionManager.getInstance(context.getApplicationContext()).getSession();
+    if (!session.isValid()) {
+      throw new LIApiError(LIApiError.ErrorType.accessTokenIsNotSet, "access toke is not set", null);
+    }
+    return session.getAccessToken();
+  }
+
+  /**
+   * GET returning a future instead of calling a listener, see {@link ApiFuture}.
+   *
+   * @param context
+   * @param url     rest api endpoint to call
+   * @return the pending response; cancelling it cancels the request
+   */
+  public ApiFuture<ApiResponse> getAsync(@NonNull Context context, @NonNull String url) {
+    return getAsync(context, url, RequestOptions.DEFAULT);
+  }
+
+  public ApiFuture<ApiResponse> getAsync(@NonNull Context context, @NonNull String url, @NonNull RequestOptions options) {
+    return requestAsync(context, Request.Method.GET, url, null, options);
+  }
+
+  /**
+   * GET binding the json response to a {@link com.linkedin.android.mobilesdk.binding.JsonModel}
+   * class, returning a future, see {@link ApiFuture}.
+   */
+  public <T> ApiFuture<T> getAsync(@NonNull Context context, @NonNull String url, @NonNull Class<T> type) {
+    final Context appContext = context.getApplicationContext();
+    final ApiFuture<T> future = new ApiFuture<>();
+    future.setCanceller(cancelCallsOf(future));
+    typedRequest(appContext, future, url, TypeAdapters.get(type), future.asTypedApiListener());
+    return future;
+  }
+
+  public ApiFuture<ApiResponse> postAsync(@NonNull Context context, @NonNull String url, @Nullable JSONObject body) {
+    return requestAsync(context, Request.Method.POST, url, body, RequestOptions.DEFAULT);
+  }
+
+  public ApiFuture<ApiResponse> putAsync(@NonNull Context context, @NonNull String url, @Nullable JSONObject body) {
+    return requestAsync(context, Request.Method.PUT, url, body, RequestOptions.DEFAULT);
+  }
+
+  public ApiFuture<ApiResponse> deleteAsync(@NonNull Context context, @NonNull String url) {
+    return requestAsync(context, Request.Method.DELETE, url, null, RequestOptions.DEFAULT);
+  }
+
+  /**
+   * Streams the responses of GET calls to the given urls, in order; a call is only made once the
+   * subscriber asked for its response, see {@link ApiPublisher}.
+   *
+   * @return a publisher that can be subscribed to once
+   */
+  public ApiPublisher<ApiResponse> getAll(@NonNull Context context, @NonNull List<String> urls) {
+    return new BatchPublisher(this, context.getApplicationContext(), new ArrayList<>(urls), RequestOptions.DEFAULT);
+  }
+
+  private ApiFuture<ApiResponse> requestAsync(Context context, int method, String url, JSONObject body,
+                                              RequestOptions options) {
+    Context appContext = context.getApplicationContext();
+    ApiFuture<ApiResponse> future = new ApiFuture<>();
+    future.setCanceller(cancelCallsOf(future));
+    request(appContext, future, method, url, body, options, ApiFuture.asApiListener(future));
+    return future;
+  }
+
+  private Runnable cancelCallsOf(final Object tag) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        cancelCalls(tag);
+      }
+    };
+  }
+
+  /**
+   * Starts building a batch of api calls that completes with a single callback.
+   *
+   * @return a new, empty batch
+   * @see BatchRequest
+   */
+  public BatchRequest batch() {
+    return new BatchRequest(this);
+  }
+
+  /**
+   * Pages through a listing endpoint using start / count paging.
+   *
+   * @param url  listing endpoint, without start and count
+   * @param type class annotated with {@link com.linkedin.android.mobilesdk.binding.JsonModel} the
+   *             items are bound to
+   * @return a new pager, see {@link Pager}
+   */
+  public <T> Pager<T> pager(@NonNull String url, @NonNull Class<T> type) {
+    return pager(url, TypeAdapters.get(type));
+  }
+
+  /**
+   * Pages through a listing endpoint using start / count paging.
+   *
+   * @param url         listing endpoint, without start and count
+   * @param typeAdapter reads a single item
+   * @return a new pager, see {@link Pager}
+   */
+  public <T> Pager<T> pager(@NonNull String url, @NonNull TypeAdapter<T> typeAdapter) {
+    return new Pager<>(this, url, typeAdapter);
+  }
+
+  /**
+   * @return number of GET calls that were attached to an identical request already in flight
+   * instead of being sent to the network
+   */
+  public long getCoalescedCallCount() {
+    return coalescer.getCoalescedCount();
   }
 }
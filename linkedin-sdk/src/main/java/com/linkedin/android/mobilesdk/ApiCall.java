@@ -0,0 +1,189 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.app.Activity;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.app.Fragment;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiListener;
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+import com.linkedin.android.mobilesdk.listeners.DownloadListener;
+import com.linkedin.android.mobilesdk.listeners.TypedApiListener;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+
+/**
+ * Handle of a call made through {@link APIHelper}.
+ * The caller the call was made for is only held weakly, so a queued request does not keep an
+ * Activity in memory. Once cancelled, the listener of the call is not notified anymore.
+ */
+public class ApiCall {
+
+  private final APIHelper apiHelper;
+  private final WeakReference<Object> owner;
+  private volatile boolean done;
+  private volatile boolean cancelled;
+  private volatile Runnable canceller;
+
+  ApiCall(@NonNull APIHelper apiHelper, @NonNull Object owner) {
+    this.apiHelper = apiHelper;
+    this.owner = new WeakReference<>(owner);
+  }
+
+  /**
+   * Cancels the call, whether it is waiting, in flight or scheduled for a retry. Other callers
+   * sharing the same request are not affected.
+   */
+  public void cancel() {
+    if (done || cancelled) {
+      return;
+    }
+    cancelled = true;
+    apiHelper.cancelCall(this);
+    Runnable canceller = this.canceller;
+    if (canceller != null) {
+      canceller.run();
+    }
+  }
+
+  /**
+   * @return true if the call was cancelled before it completed
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * @return true once the listener was notified of the result
+   */
+  public boolean isDone() {
+    return done;
+  }
+
+  /**
+   * Cancels the call when the given activity is destroyed.
+   *
+   * @return this call
+   */
+  public ApiCall bindTo(@NonNull Activity activity) {
+    LifecycleBinder.bind(activity, this);
+    return this;
+  }
+
+  /**
+   * Cancels the call when the given fragment is destroyed.
+   *
+   * @return this call
+   * @throws IllegalStateException if the fragment is not added to an activity
+   */
+  public ApiCall bindTo(@NonNull Fragment fragment) {
+    LifecycleBinder.bind(fragment, this);
+    return this;
+  }
+
+  /**
+   * @return the caller the call was made for, or null once it was garbage collected
+   */
+  @Nullable
+  Object getOwner() {
+    return owner.get();
+  }
+
+  /**
+   * @param canceller run on cancellation, for calls made of several requests such as a
+   *                  {@link BatchRequest} or a {@link Pager}
+   */
+  void setCanceller(@NonNull Runnable canceller) {
+    this.canceller = canceller;
+  }
+
+  /**
+   * @return true if the listener is to be notified
+   */
+  boolean complete() {
+    if (cancelled) {
+      return false;
+    }
+    done = true;
+    apiHelper.closeCall(this);
+    return true;
+  }
+
+  ApiListener wrap(@Nullable final ApiListener apiListener) {
+    return new ApiListener() {
+      @Override
+      public void onApiSuccess(ApiResponse apiResponse) {
+        if (complete() && apiListener != null) {
+          apiListener.onApiSuccess(apiResponse);
+        }
+      }
+
+      @Override
+      public void onApiError(LIApiError LIApiError) {
+        if (complete() && apiListener != null) {
+          apiListener.onApiError(LIApiError);
+        }
+      }
+    };
+  }
+
+  <T> TypedApiListener<T> wrap(@Nullable final TypedApiListener<T> apiListener) {
+    return new TypedApiListener<T>() {
+      @Override
+      public void onApiSuccess(T response) {
+        if (complete() && apiListener != null) {
+          apiListener.onApiSuccess(response);
+        }
+      }
+
+      @Override
+      public void onApiError(LIApiError LIApiError) {
+        if (complete() && apiListener != null) {
+          apiListener.onApiError(LIApiError);
+        }
+      }
+    };
+  }
+
+  DownloadListener wrap(@Nullable final DownloadListener downloadListener) {
+    return new DownloadListener() {
+      @Override
+      public void onDownloadProgress(long bytesWritten, long totalBytes) {
+        if (!cancelled && downloadListener != null) {
+          downloadListener.onDownloadProgress(bytesWritten, totalBytes);
+        }
+      }
+
+      @Override
+      public void onDownloadSuccess(File file) {
+        if (complete() && downloadListener != null) {
+          downloadListener.onDownloadSuccess(file);
+        }
+      }
+
+      @Override
+      public void onDownloadError(LIApiError LIApiError) {
+        if (complete() && downloadListener != null) {
+          downloadListener.onDownloadError(LIApiError);
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,160 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+/**
+ * Timeline of a single call, reported to an {@link com.linkedin.android.mobilesdk.listeners.ApiEventListener}.
+ * <p>
+ * Each attempt of a call owns one ApiEvent that is updated in place as the attempt progresses, so
+ * reporting an event does not allocate. {@link #getType()} is the event being reported; the
+ * timestamps of the events before it stay readable through {@link #getTimestampNanos(Type)}.
+ * Retries report their own events under the call id of the first attempt; an attempt that is
+ * retried ends with {@link Type#ATTEMPT_FAILED}, only the last one with {@link Type#DELIVERED}.
+ * Events are created and updated by the SDK only.
+ */
+public interface ApiEvent {
+
+  enum Type {
+    /**
+     * the call was handed to the SDK queue
+     */
+    ENQUEUED,
+    /**
+     * a network thread started executing the call
+     */
+    DISPATCHED,
+    /**
+     * the response headers arrived; not reported by the default Volley transport
+     */
+    FIRST_BYTE,
+    /**
+     * the whole response body was read, or the network attempt failed
+     */
+    BODY_READ,
+    /**
+     * the response was decoded into its result type
+     */
+    PARSED,
+    /**
+     * the result or the error was handed to the caller's listener
+     */
+    DELIVERED,
+    /**
+     * the attempt failed and the call is retried, after a backoff, as a new attempt
+     */
+    ATTEMPT_FAILED
+  }
+
+  /**
+   * Where the delivered response came from.
+   */
+  enum Source {
+    NETWORK,
+    /**
+     * the on-disk response cache, without a network call
+     */
+    CACHE,
+    /**
+     * the on-disk response cache, after the server answered 304 Not Modified
+     */
+    NOT_MODIFIED
+  }
+
+  /**
+   * @return identifier of the call, unique within the process
+   */
+  long getCallId();
+
+  /**
+   * @return one of {@link com.android.volley.Request.Method}
+   */
+  int getMethod();
+
+  String getUrl();
+
+  /**
+   * @return host and path template of the url, e.g. "api.linkedin.com/v1/people/{id}"
+   */
+  String getEndpoint();
+
+  /**
+   * @return 1 for the first attempt of the call, incremented with every retry
+   */
+  int getAttempt();
+
+  Type getType();
+
+  /**
+   * @return the {@link android.os.SystemClock#elapsedRealtimeNanos()} time of the given event, or
+   * 0 if it was not reported (yet)
+   */
+  long getTimestampNanos(Type type);
+
+  /**
+   * @return the {@link android.os.SystemClock#elapsedRealtimeNanos()} time the first attempt of
+   * the call was handed to the SDK queue
+   */
+  long getCallStartNanos();
+
+  /**
+   * @return time from the start of the call to its delivery, across every attempt and backoff,
+   * or -1 before the call was delivered
+   */
+  long getCallElapsedNanos();
+
+  /**
+   * @return time between two events of this attempt, or -1 if either was not reported
+   */
+  long getElapsedNanos(Type from, Type to);
+
+  /**
+   * @return the http status code, or -1 before a response arrived or if none did
+   */
+  int getStatusCode();
+
+  /**
+   * @return size of the request body on the wire, after compression
+   */
+  long getBytesSent();
+
+  /**
+   * @return size of the request body before compression
+   */
+  long getDecodedBytesSent();
+
+  /**
+   * @return size of the response body on the wire, before decompression
+   */
+  long getBytesReceived();
+
+  /**
+   * @return size of the response body after decompression
+   */
+  long getDecodedBytesReceived();
+
+  Source getSource();
+
+  /**
+   * @return number of callers the response is delivered to; more than 1 if identical calls were
+   * coalesced into this one
+   */
+  int getCallerCount();
+
+  /**
+   * @return for {@link Type#DELIVERED}, true if a result and not an error was delivered
+   */
+  boolean isSuccess();
+}
@@ -0,0 +1,380 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiListener;
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+import com.linkedin.android.mobilesdk.listeners.TypedApiListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Result of an asynchronous api call, for composing calls without nesting listeners.
+ * <p>
+ * Typical usage:
+ * <p>
+ * apiHelper.getAsync(ctx, profileUrl).flatMap(toConnectionsCall).addCallback(callback);
+ * <p>
+ * Calls complete on the delivery executor, the main thread by default, where callbacks and
+ * transforms run. {@link #get()} blocks until the call completed and must not be called on the
+ * main thread.
+ * {@link #cancel(boolean)} cancels the underlying request; callbacks of a cancelled future are not
+ * called.
+ */
+public class ApiFuture<T> implements Future<T> {
+
+  public interface Callback<T> {
+    void onSuccess(T result);
+
+    void onError(LIApiError LIApiError);
+  }
+
+  public interface Transform<T, R> {
+    R apply(T value);
+  }
+
+  public interface AsyncTransform<T, R> {
+    @NonNull
+    ApiFuture<R> apply(T value);
+  }
+
+  private final CountDownLatch latch = new CountDownLatch(1);
+  private final List<Callback<? super T>> callbacks = new ArrayList<>();
+  private Runnable canceller;
+  private boolean done;
+  private boolean cancelled;
+  private T result;
+  private LIApiError error;
+
+  ApiFuture() {
+  }
+
+  /**
+   * @return a future already completed with the given result
+   */
+  public static <T> ApiFuture<T> completed(@Nullable T result) {
+    ApiFuture<T> future = new ApiFuture<>();
+    future.complete(result);
+    return future;
+  }
+
+  /**
+   * @return a future already failed with the given error
+   */
+  public static <T> ApiFuture<T> failed(@NonNull LIApiError error) {
+    ApiFuture<T> future = new ApiFuture<>();
+    future.fail(error);
+    return future;
+  }
+
+  /**
+   * @return a future completing with the results of all given futures, in order, or failing with
+   * the first error; cancelling it cancels all of them
+   */
+  public static <T> ApiFuture<List<T>> allOf(@NonNull final List<ApiFuture<T>> futures) {
+    final ApiFuture<List<T>> all = new ApiFuture<>();
+    final List<T> results = new ArrayList<>(Collections.<T>nCopies(futures.size(), null));
+    final int[] remaining = {futures.size()};
+    if (futures.isEmpty()) {
+      all.complete(results);
+      return all;
+    }
+    all.setCanceller(new Runnable() {
+      @Override
+      public void run() {
+        for (ApiFuture<T> future : futures) {
+          future.cancel(false);
+        }
+      }
+    });
+    for (int i = 0; i < futures.size(); i++) {
+      final int index = i;
+      futures.get(i).addCallback(new Callback<T>() {
+        @Override
+        public void onSuccess(T result) {
+          boolean complete;
+          synchronized (results) {
+            results.set(index, result);
+            complete = --remaining[0] == 0;
+          }
+          if (complete) {
+            all.complete(results);
+          }
+        }
+
+        @Override
+        public void onError(LIApiError LIApiError) {
+          if (all.fail(LIApiError)) {
+            all.cancelSources();
+          }
+        }
+      });
+    }
+    return all;
+  }
+
+  /**
+   * @param callback called once the call completed, right away if it already did
+   * @return this future
+   */
+  public ApiFuture<T> addCallback(@NonNull Callback<? super T> callback) {
+    synchronized (this) {
+      if (!done) {
+        callbacks.add(callback);
+        return this;
+      }
+      if (cancelled) {
+        return this;
+      }
+    }
+    dispatch(callback);
+    return this;
+  }
+
+  /**
+   * @return a future completing with the result of this one converted by the transform
+   */
+  public <R> ApiFuture<R> map(@NonNull final Transform<? super T, ? extends R> transform) {
+    final ApiFuture<R> mapped = new ApiFuture<>();
+    mapped.setCanceller(cancelThis());
+    addCallback(new Callback<T>() {
+      @Override
+      public void onSuccess(T result) {
+        R value;
+        try {
+          value = transform.apply(result);
+        } catch (RuntimeException e) {
+          mapped.fail(new LIApiError("transform failed: " + e, e));
+          return;
+        }
+        mapped.complete(value);
+      }
+
+      @Override
+      public void onError(LIApiError LIApiError) {
+        mapped.fail(LIApiError);
+      }
+    });
+    return mapped;
+  }
+
+  /**
+   * Chains a dependent call: once this one succeeded, its result is used to start the next one.
+   *
+   * @return a future completing with the result of the next call; cancelling it cancels whichever
+   * call is running
+   */
+  public <R> ApiFuture<R> flatMap(@NonNull final AsyncTransform<? super T, R> transform) {
+    final ApiFuture<R> chained = new ApiFuture<>();
+    chained.setCanceller(cancelThis());
+    addCallback(new Callback<T>() {
+      @Override
+      public void onSuccess(T result) {
+        ApiFuture<R> next;
+        try {
+          next = transform.apply(result);
+        } catch (RuntimeException e) {
+          chained.fail(new LIApiError("transform failed: " + e, e));
+          return;
+        }
+        chained.setCanceller(next.cancelThis());
+        next.addCallback(new Callback<R>() {
+          @Override
+          public void onSuccess(R value) {
+            chained.complete(value);
+          }
+
+          @Override
+          public void onError(LIApiError LIApiError) {
+            chained.fail(LIApiError);
+          }
+        });
+        if (chained.isCancelled()) {
+          next.cancel(false);
+        }
+      }
+
+      @Override
+      public void onError(LIApiError LIApiError) {
+        chained.fail(LIApiError);
+      }
+    });
+    return chained;
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    synchronized (this) {
+      if (done) {
+        return false;
+      }
+      done = true;
+      cancelled = true;
+      callbacks.clear();
+    }
+    latch.countDown();
+    cancelSources();
+    return true;
+  }
+
+  @Override
+  public synchronized boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public synchronized boolean isDone() {
+    return done;
+  }
+
+  /**
+   * @throws ExecutionException with the {@link LIApiError} as its cause if the call failed
+   */
+  @Override
+  public T get() throws InterruptedException, ExecutionException {
+    checkNotMainThread();
+    latch.await();
+    return getResult();
+  }
+
+  @Override
+  public T get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+    checkNotMainThread();
+    if (!latch.await(timeout, unit)) {
+      throw new TimeoutException();
+    }
+    return getResult();
+  }
+
+  /**
+   * @param canceller cancels the underlying requests
+   */
+  synchronized void setCanceller(@Nullable Runnable canceller) {
+    this.canceller = canceller;
+  }
+
+  boolean complete(T result) {
+    return finish(result, null);
+  }
+
+  boolean fail(LIApiError error) {
+    return finish(null, error);
+  }
+
+  static ApiListener asApiListener(final ApiFuture<ApiResponse> future) {
+    return new ApiListener() {
+      @Override
+      public void onApiSuccess(ApiResponse apiResponse) {
+        future.complete(apiResponse);
+      }
+
+      @Override
+      public void onApiError(LIApiError LIApiError) {
+        future.fail(LIApiError);
+      }
+    };
+  }
+
+  TypedApiListener<T> asTypedApiListener() {
+    return new TypedApiListener<T>() {
+      @Override
+      public void onApiSuccess(T response) {
+        complete(response);
+      }
+
+      @Override
+      public void onApiError(LIApiError LIApiError) {
+        fail(LIApiError);
+      }
+    };
+  }
+
+  private boolean finish(T result, LIApiError error) {
+    List<Callback<? super T>> toNotify;
+    synchronized (this) {
+      if (done) {
+        return false;
+      }
+      done = true;
+      this.result = result;
+      this.error = error;
+      toNotify = new ArrayList<>(callbacks);
+      callbacks.clear();
+    }
+    latch.countDown();
+    for (Callback<? super T> callback : toNotify) {
+      dispatch(callback);
+    }
+    return true;
+  }
+
+  private void dispatch(Callback<? super T> callback) {
+    if (error != null) {
+      callback.onError(error);
+    } else {
+      callback.onSuccess(result);
+    }
+  }
+
+  private Runnable cancelThis() {
+    return new Runnable() {
+      @Override
+      public void run() {
+        cancel(false);
+      }
+    };
+  }
+
+  private void cancelSources() {
+    Runnable toRun;
+    synchronized (this) {
+      toRun = canceller;
+    }
+    if (toRun != null) {
+      toRun.run();
+    }
+  }
+
+  private synchronized T getResult() throws ExecutionException {
+    if (cancelled) {
+      throw new CancellationException();
+    }
+    if (error != null) {
+      throw new ExecutionException(error);
+    }
+    return result;
+  }
+
+  private static void checkNotMainThread() {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      // results are delivered on the main thread by default, so waiting there would never return
+      throw new IllegalStateException("ApiFuture.get() must not be called on the main thread");
+    }
+  }
+}
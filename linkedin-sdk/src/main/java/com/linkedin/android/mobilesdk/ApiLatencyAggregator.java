@@ -0,0 +1,229 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.support.annotation.NonNull;
+
+import com.linkedin.android.mobilesdk.listeners.ApiEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ApiEventListener} keeping latency histograms per endpoint and phase of the calls.
+ * Recording is lock-free and allocates nothing once an endpoint has been seen.
+ * <p>
+ * {@link Phase#TOTAL} covers a call from its first attempt to its delivery, retries and backoff
+ * included; the other phases are recorded for every attempt, including the failed ones.
+ * <p>
+ * Usage: APIHelper.getInstance(ctx).setApiEventListener(aggregator); ... aggregator.snapshot()
+ */
+public class ApiLatencyAggregator implements ApiEventListener {
+
+  /**
+   * Phases of a call, between two {@link ApiEvent.Type}s.
+   */
+  public enum Phase {
+    /**
+     * ENQUEUED of the first attempt to DELIVERED, see {@link ApiEvent#getCallElapsedNanos()}
+     */
+    TOTAL(ApiEvent.Type.ENQUEUED, ApiEvent.Type.DELIVERED),
+    /**
+     * ENQUEUED to DELIVERED or ATTEMPT_FAILED of a single attempt
+     */
+    ATTEMPT(ApiEvent.Type.ENQUEUED, null),
+    /**
+     * ENQUEUED to DISPATCHED: rate limit, priority lanes and queue
+     */
+    QUEUE_WAIT(ApiEvent.Type.ENQUEUED, ApiEvent.Type.DISPATCHED),
+    /**
+     * DISPATCHED to FIRST_BYTE
+     */
+    TIME_TO_FIRST_BYTE(ApiEvent.Type.DISPATCHED, ApiEvent.Type.FIRST_BYTE),
+    /**
+     * DISPATCHED to BODY_READ
+     */
+    NETWORK(ApiEvent.Type.DISPATCHED, ApiEvent.Type.BODY_READ),
+    /**
+     * BODY_READ to PARSED
+     */
+    PARSE(ApiEvent.Type.BODY_READ, ApiEvent.Type.PARSED),
+    /**
+     * PARSED to DELIVERED: hand-off to the delivery executor and the listener itself
+     */
+    DELIVERY(ApiEvent.Type.PARSED, ApiEvent.Type.DELIVERED);
+
+    private final ApiEvent.Type from;
+    private final ApiEvent.Type to;
+
+    /**
+     * @param to end of the phase, null for the event ending the attempt
+     */
+    Phase(ApiEvent.Type from, ApiEvent.Type to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * @return the duration of this phase in the given event, or -1 if it does not cover it
+     */
+    long getElapsedNanos(ApiEvent apiEvent) {
+      if (this == TOTAL) {
+        return apiEvent.getCallElapsedNanos();
+      }
+      return apiEvent.getElapsedNanos(from, to != null ? to : apiEvent.getType());
+    }
+  }
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private final ConcurrentMap<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+
+  @Override
+  public void onApiEvent(ApiEvent apiEvent) {
+    if (apiEvent.getType() != ApiEvent.Type.DELIVERED && apiEvent.getType() != ApiEvent.Type.ATTEMPT_FAILED) {
+      return;
+    }
+    EndpointLatency latency = endpoints.get(apiEvent.getEndpoint());
+    if (latency == null) {
+      EndpointLatency created = new EndpointLatency();
+      latency = endpoints.putIfAbsent(apiEvent.getEndpoint(), created);
+      if (latency == null) {
+        latency = created;
+      }
+    }
+    latency.record(apiEvent);
+  }
+
+  /**
+   * @return the latencies per endpoint recorded so far, see {@link ApiEvent#getEndpoint()}
+   */
+  @NonNull
+  public Map<String, EndpointLatency> snapshot() {
+    Map<String, EndpointLatency> snapshot = new HashMap<>();
+    for (Map.Entry<String, EndpointLatency> entry : endpoints.entrySet()) {
+      snapshot.put(entry.getKey(), entry.getValue().snapshot());
+    }
+    return snapshot;
+  }
+
+  public void reset() {
+    endpoints.clear();
+  }
+
+  /**
+   * Latencies of the calls to one endpoint.
+   */
+  public static class EndpointLatency {
+    private final LatencyHistogram[] histograms;
+    private final AtomicLong errorCount;
+    private final AtomicLong cacheCount;
+    private final AtomicLong coalescedCount;
+    private final AtomicLong retryCount;
+
+    EndpointLatency() {
+      histograms = new LatencyHistogram[PHASES.length];
+      for (int i = 0; i < histograms.length; i++) {
+        histograms[i] = new LatencyHistogram();
+      }
+      errorCount = new AtomicLong();
+      cacheCount = new AtomicLong();
+      coalescedCount = new AtomicLong();
+      retryCount = new AtomicLong();
+    }
+
+    private EndpointLatency(EndpointLatency source) {
+      histograms = new LatencyHistogram[PHASES.length];
+      for (int i = 0; i < histograms.length; i++) {
+        histograms[i] = source.histograms[i].snapshot();
+      }
+      errorCount = new AtomicLong(source.errorCount.get());
+      cacheCount = new AtomicLong(source.cacheCount.get());
+      coalescedCount = new AtomicLong(source.coalescedCount.get());
+      retryCount = new AtomicLong(source.retryCount.get());
+    }
+
+    void record(ApiEvent apiEvent) {
+      for (Phase phase : PHASES) {
+        long elapsed = phase.getElapsedNanos(apiEvent);
+        if (elapsed >= 0) {
+          histograms[phase.ordinal()].record(elapsed);
+        }
+      }
+      if (apiEvent.getType() == ApiEvent.Type.ATTEMPT_FAILED) {
+        retryCount.incrementAndGet();
+        return;
+      }
+      if (!apiEvent.isSuccess()) {
+        errorCount.incrementAndGet();
+      }
+      if (apiEvent.getSource() != ApiEvent.Source.NETWORK) {
+        cacheCount.incrementAndGet();
+      }
+      coalescedCount.addAndGet(apiEvent.getCallerCount() - 1);
+    }
+
+    EndpointLatency snapshot() {
+      return new EndpointLatency(this);
+    }
+
+    @NonNull
+    public LatencyHistogram getHistogram(@NonNull Phase phase) {
+      return histograms[phase.ordinal()];
+    }
+
+    /**
+     * @return number of calls delivered, successfully or not
+     */
+    public long getCallCount() {
+      return histograms[Phase.TOTAL.ordinal()].getCount();
+    }
+
+    public long getErrorCount() {
+      return errorCount.get();
+    }
+
+    /**
+     * @return number of calls answered from the response cache, with or without revalidation
+     */
+    public long getCacheCount() {
+      return cacheCount.get();
+    }
+
+    /**
+     * @return number of failed attempts that were retried
+     */
+    public long getRetryCount() {
+      return retryCount.get();
+    }
+
+    /**
+     * @return number of callers served by another caller's identical call
+     */
+    public long getCoalescedCount() {
+      return coalescedCount.get();
+    }
+
+    @Override
+    public String toString() {
+      return "EndpointLatency{calls=" + getCallCount() + ", errors=" + getErrorCount() + ", retries=" + getRetryCount()
+          + ", total=" + getHistogram(Phase.TOTAL) + "}";
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.support.annotation.NonNull;
+
+import com.linkedin.android.mobilesdk.listeners.ApiSubscriber;
+
+/**
+ * Stream of api results that are only fetched as the subscriber asks for them, modelled on
+ * java.util.concurrent.Flow.Publisher, which is not available on older Android versions.
+ * A publisher can be subscribed to once.
+ *
+ * @see Pager#publish(android.content.Context)
+ * @see APIHelper#getAll(android.content.Context, java.util.List)
+ */
+public interface ApiPublisher<T> {
+
+  void subscribe(@NonNull ApiSubscriber<? super T> subscriber);
+}
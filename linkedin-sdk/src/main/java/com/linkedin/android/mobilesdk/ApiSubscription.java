@@ -0,0 +1,35 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+/**
+ * Link between an {@link ApiPublisher} and its subscriber, used to signal demand. Both methods
+ * may be called from any thread.
+ */
+public interface ApiSubscription {
+
+  /**
+   * Asks for up to n more items. Calls are only made as far as needed to satisfy the demand.
+   *
+   * @param n number of items, must be positive
+   */
+  void request(long n);
+
+  /**
+   * Cancels the calls in flight; the subscriber is not called anymore.
+   */
+  void cancel();
+}
@@ -0,0 +1,144 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.android.volley.Request;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiListener;
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+import com.linkedin.android.mobilesdk.listeners.ApiSubscriber;
+
+import java.util.List;
+
+/**
+ * Publishes the responses of a list of GET calls in list order. Calls are dispatched only as far
+ * as the subscriber's demand reaches, at most {@value #MAX_PARALLELISM} at a time; the first
+ * failure cancels the remaining calls and ends the stream.
+ */
+class BatchPublisher implements ApiPublisher<ApiResponse> {
+
+  private static final int MAX_PARALLELISM = 4;
+
+  private final APIHelper apiHelper;
+  private final Context context;
+  private final List<String> urls;
+  private final RequestOptions options;
+  private boolean subscribed;
+
+  BatchPublisher(APIHelper apiHelper, Context context, List<String> urls, RequestOptions options) {
+    this.apiHelper = apiHelper;
+    this.context = context;
+    this.urls = urls;
+    this.options = options;
+  }
+
+  @Override
+  public void subscribe(@NonNull ApiSubscriber<? super ApiResponse> subscriber) {
+    synchronized (this) {
+      if (subscribed) {
+        throw new IllegalStateException("publisher already subscribed to");
+      }
+      subscribed = true;
+    }
+    new BatchSubscription(subscriber).start();
+  }
+
+  private class BatchSubscription extends DemandSubscription<ApiResponse> {
+    // responses that arrived before the ones preceding them
+    private final ApiResponse[] arrived = new ApiResponse[urls.size()];
+    private int nextCall;
+    private int nextEmitted;
+
+    BatchSubscription(ApiSubscriber<? super ApiResponse> subscriber) {
+      super(subscriber);
+    }
+
+    @Override
+    void load() {
+      if (urls.isEmpty()) {
+        onDone();
+        return;
+      }
+      while (!isTerminated() && nextCall < urls.size() && nextCall - nextEmitted < MAX_PARALLELISM
+          && nextCall - nextEmitted < getMissingCount()) {
+        int index = nextCall++;
+        apiHelper.request(context, this, Request.Method.GET, urls.get(index), null, options, new Call(index));
+      }
+    }
+
+    @Override
+    void onCancel() {
+      apiHelper.cancelCalls(this);
+    }
+
+    private void onCallCompleted(int index, ApiResponse response) {
+      if (isTerminated() || hasCompleted(index)) {
+        return;
+      }
+      arrived[index] = response;
+      while (nextEmitted < arrived.length && arrived[nextEmitted] != null) {
+        ApiResponse next = arrived[nextEmitted];
+        arrived[nextEmitted++] = null;
+        onItem(next);
+      }
+      if (nextEmitted == arrived.length) {
+        onDone();
+      }
+    }
+
+    /**
+     * In CACHE_FIRST mode the refresh of a stored response is delivered after it; only the first
+     * result of a call is used.
+     */
+    private boolean hasCompleted(int index) {
+      return index < nextEmitted || arrived[index] != null;
+    }
+
+    private class Call implements ApiListener {
+      private final int index;
+
+      Call(int index) {
+        this.index = index;
+      }
+
+      @Override
+      public void onApiSuccess(final ApiResponse apiResponse) {
+        runOnMain(new Runnable() {
+          @Override
+          public void run() {
+            onCallCompleted(index, apiResponse);
+          }
+        });
+      }
+
+      @Override
+      public void onApiError(final LIApiError LIApiError) {
+        runOnMain(new Runnable() {
+          @Override
+          public void run() {
+            if (!isTerminated() && !hasCompleted(index)) {
+              apiHelper.cancelCalls(BatchSubscription.this);
+              onFailure(LIApiError);
+            }
+          }
+        });
+      }
+    }
+  }
+}
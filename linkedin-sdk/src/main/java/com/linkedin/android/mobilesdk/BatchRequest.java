@@ -0,0 +1,307 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.app.Activity;
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.app.Fragment;
+
+import com.android.volley.Request;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiListener;
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+import com.linkedin.android.mobilesdk.listeners.BatchListener;
+import com.linkedin.android.mobilesdk.listeners.BatchResult;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A group of api calls dispatched together and completed with a single callback.
+ * <p>
+ * Typical usage:
+ * <p>
+ * APIHelper.getInstance(ctx).batch().get(url1).get(url2).post(url3, body).execute(ctx, listener);
+ * <p>
+ * At most {@link #setMaxParallelism(int)} calls are in flight at any time. Results are reported in
+ * the order the calls were added, see {@link BatchResult}.
+ * <p>
+ * Like an {@link ApiCall}, a batch only holds the Activity it was executed with weakly, and can be
+ * bound to an Activity or Fragment to be cancelled when it is destroyed.
+ */
+public class BatchRequest {
+
+  /**
+   * How failures of single calls affect the batch.
+   */
+  public enum Mode {
+    /**
+     * the first failure cancels the remaining calls and is reported through
+     * {@link BatchListener#onBatchError(LIApiError, BatchResult)}
+     */
+    ALL_OR_NOTHING,
+    /**
+     * every call runs to completion; failures are reported per call in the {@link BatchResult}
+     */
+    PARTIAL
+  }
+
+  private static final int DEFAULT_MAX_PARALLELISM = 4;
+
+  private final APIHelper apiHelper;
+  private final List<Call> calls = new ArrayList<>();
+  private int maxParallelism = DEFAULT_MAX_PARALLELISM;
+  private Mode mode = Mode.PARTIAL;
+  private RequestOptions options = RequestOptions.DEFAULT;
+
+  // the application context, the caller's is only held weakly by the api call
+  private Context context;
+  private ApiCall apiCall;
+  private BatchListener batchListener;
+  private BatchResult batchResult;
+  private int nextCall;
+  private int completedCalls;
+  private boolean finished;
+
+  BatchRequest(@NonNull APIHelper apiHelper) {
+    this.apiHelper = apiHelper;
+  }
+
+  public BatchRequest get(@NonNull String url) {
+    return add(Request.Method.GET, url, null);
+  }
+
+  public BatchRequest post(@NonNull String url, @Nullable JSONObject body) {
+    return add(Request.Method.POST, url, body);
+  }
+
+  public BatchRequest put(@NonNull String url, @Nullable JSONObject body) {
+    return add(Request.Method.PUT, url, body);
+  }
+
+  public BatchRequest delete(@NonNull String url) {
+    return add(Request.Method.DELETE, url, null);
+  }
+
+  /**
+   * @param maxParallelism maximum number of calls of this batch in flight at the same time
+   */
+  public BatchRequest setMaxParallelism(int maxParallelism) {
+    if (maxParallelism < 1) {
+      throw new IllegalArgumentException("maxParallelism must be at least 1");
+    }
+    checkNotStarted();
+    this.maxParallelism = maxParallelism;
+    return this;
+  }
+
+  public BatchRequest setMode(@NonNull Mode mode) {
+    checkNotStarted();
+    this.mode = mode;
+    return this;
+  }
+
+  /**
+   * @param options options applied to every call of the batch, e.g. a LOW priority for
+   *                background syncs
+   */
+  public BatchRequest setOptions(@NonNull RequestOptions options) {
+    checkNotStarted();
+    this.options = options;
+    return this;
+  }
+
+  /**
+   * Dispatches the calls of this batch. A batch can only be executed once.
+   *
+   * @param context
+   * @param batchListener called once, after every call completed or after the first failure in
+   *                      {@link Mode#ALL_OR_NOTHING} mode
+   * @return this batch, which can be used to cancel it
+   */
+  public BatchRequest execute(@NonNull Context context, @Nullable BatchListener batchListener) {
+    synchronized (this) {
+      checkNotStarted();
+      this.context = context.getApplicationContext();
+      this.apiCall = apiHelper.openCall(context);
+      this.batchListener = batchListener;
+      this.batchResult = new BatchResult(calls.size());
+    }
+    apiCall.setCanceller(cancelThis());
+    if (calls.isEmpty()) {
+      complete();
+      return this;
+    }
+    dispatchNext();
+    return this;
+  }
+
+  /**
+   * Cancels every call of this batch that has not completed yet. The listener is not called
+   * after the batch has been cancelled.
+   */
+  public void cancel() {
+    synchronized (this) {
+      if (context == null || finished) {
+        return;
+      }
+      finished = true;
+    }
+    apiHelper.cancelCalls(this);
+    apiCall.cancel();
+  }
+
+  /**
+   * Cancels the batch when the given activity is destroyed.
+   *
+   * @return this batch
+   * @throws IllegalStateException if the batch was not executed yet
+   */
+  public BatchRequest bindTo(@NonNull Activity activity) {
+    getApiCall().bindTo(activity);
+    return this;
+  }
+
+  /**
+   * Cancels the batch when the given fragment is destroyed.
+   *
+   * @return this batch
+   * @throws IllegalStateException if the batch was not executed yet, or if the fragment is
+   *                               not added to an activity
+   */
+  public BatchRequest bindTo(@NonNull Fragment fragment) {
+    getApiCall().bindTo(fragment);
+    return this;
+  }
+
+  private BatchRequest add(int method, String url, JSONObject body) {
+    checkNotStarted();
+    calls.add(new Call(calls.size(), method, url, body));
+    return this;
+  }
+
+  private synchronized void checkNotStarted() {
+    if (batchResult != null) {
+      throw new IllegalStateException("batch already executed");
+    }
+  }
+
+  private void dispatchNext() {
+    List<Call> toStart = new ArrayList<>();
+    synchronized (this) {
+      while (!finished && nextCall < calls.size() && nextCall - completedCalls < maxParallelism) {
+        toStart.add(calls.get(nextCall++));
+      }
+    }
+    // outside the lock: a call may complete synchronously, e.g. when the session is not valid
+    for (Call call : toStart) {
+      apiHelper.request(context, this, call.method, call.url, call.body, options, call);
+    }
+  }
+
+  private void onCallCompleted(Call call, ApiResponse apiResponse, LIApiError error) {
+    boolean failFast;
+    boolean done;
+    synchronized (this) {
+      if (finished) {
+        return;
+      }
+      if (call.completed) {
+        // refresh of a stored response delivered first in CACHE_FIRST mode: a fresher response
+        // replaces it, a failed refresh keeps it, and the call is not counted again
+        if (error == null) {
+          batchResult.set(call.index, apiResponse, null);
+        }
+        return;
+      }
+      batchResult.set(call.index, apiResponse, error);
+      call.completed = true;
+      completedCalls++;
+      failFast = error != null && mode == Mode.ALL_OR_NOTHING;
+      done = failFast || completedCalls == calls.size();
+      if (done) {
+        finished = true;
+      }
+    }
+    if (failFast) {
+      apiCall.complete();
+      apiHelper.cancelCalls(this);
+      if (batchListener != null) {
+        batchListener.onBatchError(error, batchResult);
+      }
+    } else if (done) {
+      complete();
+    } else {
+      dispatchNext();
+    }
+  }
+
+  private void complete() {
+    synchronized (this) {
+      finished = true;
+    }
+    apiCall.complete();
+    if (batchListener != null) {
+      batchListener.onBatchComplete(batchResult);
+    }
+  }
+
+  private synchronized ApiCall getApiCall() {
+    if (apiCall == null) {
+      throw new IllegalStateException("batch not executed yet");
+    }
+    return apiCall;
+  }
+
+  private Runnable cancelThis() {
+    return new Runnable() {
+      @Override
+      public void run() {
+        cancel();
+      }
+    };
+  }
+
+  private class Call implements ApiListener {
+    private final int index;
+    private final int method;
+    private final String url;
+    private final JSONObject body;
+    // guarded by the BatchRequest
+    private boolean completed;
+
+    Call(int index, int method, String url, JSONObject body) {
+      this.index = index;
+      this.method = method;
+      this.url = url;
+      this.body = body;
+    }
+
+    @Override
+    public void onApiSuccess(ApiResponse apiResponse) {
+      onCallCompleted(this, apiResponse, null);
+    }
+
+    @Override
+    public void onApiError(LIApiError LIApiError) {
+      onCallCompleted(this, null, LIApiError);
+    }
+  }
+}
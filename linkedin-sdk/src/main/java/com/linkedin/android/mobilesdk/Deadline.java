@@ -0,0 +1,64 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a blocking call must have completed, including rate limit waits and
+ * retries. Based on the monotonic {@link SystemClock#elapsedRealtime()} clock.
+ */
+public final class Deadline {
+
+  private final long expiresAt;
+
+  private Deadline(long expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * @return a deadline the given time from now
+   */
+  public static Deadline after(long duration, @NonNull TimeUnit unit) {
+    return new Deadline(SystemClock.elapsedRealtime() + unit.toMillis(duration));
+  }
+
+  /**
+   * @return time left, 0 once the deadline passed
+   */
+  public long getRemainingMs() {
+    return Math.max(0, expiresAt - SystemClock.elapsedRealtime());
+  }
+
+  public boolean isExpired() {
+    return getRemainingMs() == 0;
+  }
+
+  /**
+   * @return the {@link SystemClock#elapsedRealtime()} time of the deadline
+   */
+  long getExpiresAt() {
+    return expiresAt;
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline{remainingMs=" + getRemainingMs() + "}";
+  }
+}
@@ -0,0 +1,178 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiSubscriber;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+
+/**
+ * Demand accounting shared by the {@link ApiPublisher}s: items are buffered until the subscriber
+ * asked for them, and subclasses are asked to {@link #load()} more only while the demand exceeds
+ * what is buffered. All state is confined to the main thread, so the subscriber is signalled
+ * serially; subclasses hand the api results over with {@link #runOnMain(Runnable)}, as they may be
+ * delivered on another executor.
+ */
+abstract class DemandSubscription<T> implements ApiSubscription {
+
+  private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+  private final ApiSubscriber<? super T> subscriber;
+  private final ArrayDeque<T> buffer = new ArrayDeque<>();
+  private long demand;
+  private boolean completed;
+  private LIApiError error;
+  private boolean terminated;
+  private boolean draining;
+  private boolean missed;
+
+  DemandSubscription(ApiSubscriber<? super T> subscriber) {
+    this.subscriber = subscriber;
+  }
+
+  void start() {
+    runOnMain(new Runnable() {
+      @Override
+      public void run() {
+        subscriber.onSubscribe(DemandSubscription.this);
+      }
+    });
+  }
+
+  @Override
+  public void request(final long n) {
+    runOnMain(new Runnable() {
+      @Override
+      public void run() {
+        if (n <= 0) {
+          onFailure(new LIApiError("request(n) needs a positive n, got " + n, null));
+          return;
+        }
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        drain();
+      }
+    });
+  }
+
+  @Override
+  public void cancel() {
+    runOnMain(new Runnable() {
+      @Override
+      public void run() {
+        if (!terminated) {
+          terminated = true;
+          buffer.clear();
+          onCancel();
+        }
+      }
+    });
+  }
+
+  /**
+   * Loads more items; called on the main thread while {@link #getMissingCount()} is positive.
+   */
+  abstract void load();
+
+  /**
+   * Cancels the calls in flight.
+   */
+  abstract void onCancel();
+
+  /**
+   * @return number of items asked for that are neither delivered nor buffered
+   */
+  long getMissingCount() {
+    return demand - buffer.size();
+  }
+
+  boolean isTerminated() {
+    return terminated;
+  }
+
+  void onItems(Collection<? extends T> items) {
+    buffer.addAll(items);
+    drain();
+  }
+
+  void onItem(T item) {
+    buffer.add(item);
+    drain();
+  }
+
+  void onDone() {
+    completed = true;
+    drain();
+  }
+
+  /**
+   * The error is signalled once the items buffered before it were delivered.
+   */
+  void onFailure(LIApiError error) {
+    if (this.error == null) {
+      this.error = error;
+    }
+    drain();
+  }
+
+  private void drain() {
+    if (draining) {
+      // re-entered from a subscriber or load() callback, the running loop picks it up
+      missed = true;
+      return;
+    }
+    draining = true;
+    try {
+      do {
+        missed = false;
+        while (!terminated && demand > 0 && !buffer.isEmpty()) {
+          demand--;
+          subscriber.onNext(buffer.poll());
+        }
+        if (terminated) {
+          return;
+        }
+        if (buffer.isEmpty() && (error != null || completed)) {
+          terminated = true;
+          if (error != null) {
+            onCancel();
+            subscriber.onError(error);
+          } else {
+            subscriber.onComplete();
+          }
+          return;
+        }
+        if (getMissingCount() > 0) {
+          load();
+        }
+      } while (missed);
+    } finally {
+      draining = false;
+    }
+  }
+
+  static void runOnMain(Runnable runnable) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      runnable.run();
+    } else {
+      MAIN_HANDLER.post(runnable);
+    }
+  }
+}
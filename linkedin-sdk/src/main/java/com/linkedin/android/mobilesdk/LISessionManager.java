@@ -4,7 +4,6 @@ import android.app.Activity;
 import android.content.ActivityNotFoundException;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
@@ -15,10 +14,17 @@ import com.linkedin.android.mobilesdk.errors.LIAppErrorCode;
 import com.linkedin.android.mobilesdk.errors.LiCommonError;
 import com.linkedin.android.mobilesdk.internals.AppStore;
 import com.linkedin.android.mobilesdk.internals.LIAppVersion;
+import com.linkedin.android.mobilesdk.internals.QueueManager;
+import com.linkedin.android.mobilesdk.internals.SessionStore;
+import com.linkedin.android.mobilesdk.internals.TokenLifecycle;
 import com.linkedin.android.mobilesdk.listeners.AuthListener;
+import com.linkedin.android.mobilesdk.listeners.TokenLifecycleListener;
 import com.linkedin.android.mobilesdk.utils.Scope;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * LISessionManager manages the authorizations needed for an application
@@ -49,22 +55,24 @@ public class LISessionManager {
 
   private static LISessionManager sessionManager;
 
-  private Context ctx;
+  private final Context ctx;
   private final LISessionImpl session;
+  private final TokenLifecycle tokenLifecycle = new TokenLifecycle();
   private AuthListener authListener;
 
-  public static LISessionManager getInstance(@NonNull Context context) {
+  /**
+   * The first call starts reading the stored session on a background thread.
+   */
+  public static synchronized LISessionManager getInstance(@NonNull Context context) {
     if (sessionManager == null) {
-      sessionManager = new LISessionManager();
-    }
-    if (sessionManager.ctx == null) {
-      sessionManager.ctx = context.getApplicationContext();
+      sessionManager = new LISessionManager(context.getApplicationContext());
     }
     return sessionManager;
   }
 
-  private LISessionManager() {
-    this.session = new LISessionImpl();
+  private LISessionManager(Context ctx) {
+    this.ctx = ctx;
+    this.session = new LISessionImpl(ctx, tokenLifecycle);
   }
 
   /**
@@ -74,7 +82,12 @@ public class LISessionManager {
    * @param accessToken access token
    */
   public void init(AccessToken accessToken) {
+    AccessToken previous = session.getAccessToken();
     session.setAccessToken(accessToken);
+    if (previous != null && (accessToken == null || !previous.getValue().equals(accessToken.getValue()))) {
+      // cached responses belong to the previous member
+      QueueManager.clearResponseCache();
+    }
   }
 
   private Intent prepare(Activity activity, Scope scope, AuthListener callback, boolean
@@ -201,12 +214,35 @@ public class LISessionManager {
     return session;
   }
 
+  /**
+   * Registers a listener told on the main thread when the access token is about to expire and
+   * when it expired, e.g. to re-authorize before calls start failing.
+   *
+   * @param listener listener to add
+   */
+  public void addTokenLifecycleListener(@NonNull TokenLifecycleListener listener) {
+    tokenLifecycle.addListener(listener);
+  }
+
+  public void removeTokenLifecycleListener(@NonNull TokenLifecycleListener listener) {
+    tokenLifecycle.removeListener(listener);
+  }
+
+  /**
+   * @param nearExpiryMarginMs how long before the expiry listeners are told the token is expiring,
+   *                           5 minutes by default
+   */
+  public void setNearExpiryMargin(long nearExpiryMarginMs) {
+    tokenLifecycle.setNearExpiryMargin(nearExpiryMarginMs);
+  }
+
   /**
    * Clears the session.  Calls to retrieve LinkedIn data or to view profiles will no longer
    * work.
    */
   public void clearSession() {
     session.setAccessToken(null);
+    QueueManager.clearResponseCache();
   }
 
   /**
@@ -224,28 +260,57 @@ public class LISessionManager {
 
   /**
    * private implementation of LISession
-   * takes are of saving and restoring session to/from shared preferences
+   * keeps the access token in memory and saves it to / restores it from a {@link SessionStore} on
+   * a background thread, so checking the session is a field read
    */
   private static class LISessionImpl implements LISession {
 
-    private static final String LI_SDK_SHARED_PREF_STORE = "li_shared_pref_store";
-    private static final String SHARED_PREFERENCES_ACCESS_TOKEN = "li_sdk_access_token";
-    private AccessToken accessToken = null;
+    private static final TokenState ABSENT = new TokenState(null);
 
-    public LISessionImpl() {
+    private final SessionStore store;
+    private final TokenLifecycle lifecycle;
+    private final ExecutorService storageExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(@NonNull Runnable runnable) {
+        return new Thread(runnable, "li-sdk-session");
+      }
+    });
+    /**
+     * null until the stored token was read; {@link #ABSENT} once it is known there is none
+     */
+    private volatile TokenState state;
+
+    LISessionImpl(Context context, TokenLifecycle lifecycle) {
+      store = new SessionStore(context);
+      this.lifecycle = lifecycle;
+      storageExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          load();
+        }
+      });
     }
 
     @Override
     public AccessToken getAccessToken() {
-      if (accessToken == null) {
-        recover();
+      TokenState current = state;
+      if (current == null) {
+        // only if asked before the background preload finished
+        current = load();
       }
-      return accessToken;
+      return current.accessToken;
     }
 
-    void setAccessToken(@Nullable AccessToken accessToken) {
-      this.accessToken = accessToken;
-      save();
+    synchronized void setAccessToken(@Nullable final AccessToken accessToken) {
+      state = accessToken == null ? ABSENT : new TokenState(accessToken);
+      lifecycle.onTokenChanged(accessToken);
+      // queued in order behind the preload, so an older token can never overwrite this one
+      storageExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          store.write(accessToken);
+        }
+      });
     }
 
     /**
@@ -265,23 +330,21 @@ public class LISessionManager {
       setAccessToken(null);
     }
 
-    /**
-     * Storage
-     */
-    private SharedPreferences getSharedPref() {
-      return LISessionManager.sessionManager.ctx.getSharedPreferences(LI_SDK_SHARED_PREF_STORE, Context.MODE_PRIVATE);
+    private synchronized TokenState load() {
+      if (state == null) {
+        AccessToken accessToken = store.read();
+        state = accessToken == null ? ABSENT : new TokenState(accessToken);
+        lifecycle.onTokenChanged(accessToken);
+      }
+      return state;
     }
+  }
 
-    private void save() {
-      SharedPreferences.Editor edit = getSharedPref().edit();
-      edit.putString(SHARED_PREFERENCES_ACCESS_TOKEN, accessToken == null ? null : accessToken.toString());
-      edit.apply();
-    }
+  private static class TokenState {
+    private final AccessToken accessToken;
 
-    private void recover() {
-      SharedPreferences sharedPref = getSharedPref();
-      String accessTokenStr = sharedPref.getString(SHARED_PREFERENCES_ACCESS_TOKEN, null);
-      accessToken = accessTokenStr == null ? null : AccessToken.buildAccessToken(accessTokenStr);
+    TokenState(AccessToken accessToken) {
+      this.accessToken = accessToken;
     }
   }
 }
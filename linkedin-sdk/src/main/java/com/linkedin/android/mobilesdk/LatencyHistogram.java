@@ -0,0 +1,128 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with two buckets per power of two of microseconds, i.e. a relative
+ * error below 50%, covering 1us to about 70 minutes in 64 buckets.
+ */
+public class LatencyHistogram {
+
+  private static final int BUCKET_COUNT = 64;
+  private static final long NANOS_PER_MICRO = 1000;
+
+  private final AtomicLongArray buckets;
+  private final AtomicLong count;
+  private final AtomicLong sumNanos;
+  private final AtomicLong maxNanos;
+
+  LatencyHistogram() {
+    buckets = new AtomicLongArray(BUCKET_COUNT);
+    count = new AtomicLong();
+    sumNanos = new AtomicLong();
+    maxNanos = new AtomicLong();
+  }
+
+  private LatencyHistogram(LatencyHistogram source) {
+    long[] copy = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      copy[i] = source.buckets.get(i);
+    }
+    buckets = new AtomicLongArray(copy);
+    count = new AtomicLong(source.count.get());
+    sumNanos = new AtomicLong(source.sumNanos.get());
+    maxNanos = new AtomicLong(source.maxNanos.get());
+  }
+
+  void record(long nanos) {
+    if (nanos < 0) {
+      return;
+    }
+    buckets.incrementAndGet(bucketOf(nanos / NANOS_PER_MICRO));
+    count.incrementAndGet();
+    sumNanos.addAndGet(nanos);
+    long max;
+    while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+      // retry
+    }
+  }
+
+  /**
+   * @return a copy that is not affected by later recordings
+   */
+  LatencyHistogram snapshot() {
+    return new LatencyHistogram(this);
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public double getMeanMillis() {
+    long n = count.get();
+    return n == 0 ? 0 : sumNanos.get() / 1e6 / n;
+  }
+
+  public double getMaxMillis() {
+    return maxNanos.get() / 1e6;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return upper bound of the bucket holding the given percentile, 0 if nothing was recorded
+   */
+  public double getPercentileMillis(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) {
+        return Math.min(upperBoundMicros(i) / 1e3, getMaxMillis());
+      }
+    }
+    return getMaxMillis();
+  }
+
+  /**
+   * bucket 2k holds [2^k, 1.5 * 2^k) us and bucket 2k + 1 holds [1.5 * 2^k, 2^(k+1)) us
+   */
+  private static int bucketOf(long micros) {
+    if (micros < 1) {
+      return 0;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    int half = exponent == 0 ? 0 : (int) (micros >>> (exponent - 1)) & 1;
+    return Math.min(BUCKET_COUNT - 1, 2 * exponent + half);
+  }
+
+  private static long upperBoundMicros(int bucket) {
+    int exponent = bucket / 2;
+    return bucket % 2 == 0 ? (1L << exponent) + (1L << exponent >> 1) : 1L << (exponent + 1);
+  }
+
+  @Override
+  public String toString() {
+    return "LatencyHistogram{count=" + getCount() + ", p50=" + getPercentileMillis(50) + "ms, p90="
+        + getPercentileMillis(90) + "ms, p99=" + getPercentileMillis(99) + "ms, max=" + getMaxMillis() + "ms}";
+  }
+}
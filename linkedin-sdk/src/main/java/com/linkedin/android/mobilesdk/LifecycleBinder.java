@@ -0,0 +1,153 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentManager;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cancels the {@link ApiCall}s bound to an Activity or Fragment once it is destroyed.
+ * Activities and fragments are held weakly; the calls bound to one are pruned of completed calls
+ * whenever another one is bound.
+ */
+final class LifecycleBinder {
+
+  private static final Map<Activity, List<ApiCall>> ACTIVITY_CALLS = new WeakHashMap<>();
+  private static final Map<Fragment, List<ApiCall>> FRAGMENT_CALLS = new WeakHashMap<>();
+  private static final ActivityCallbacks ACTIVITY_CALLBACKS = new ActivityCallbacks();
+  private static boolean activityCallbacksRegistered;
+
+  private LifecycleBinder() {
+  }
+
+  static void bind(@NonNull Activity activity, @NonNull ApiCall call) {
+    synchronized (LifecycleBinder.class) {
+      if (!activityCallbacksRegistered) {
+        activity.getApplication().registerActivityLifecycleCallbacks(ACTIVITY_CALLBACKS);
+        activityCallbacksRegistered = true;
+      }
+      add(ACTIVITY_CALLS, activity, call);
+    }
+  }
+
+  static void bind(@NonNull Fragment fragment, @NonNull ApiCall call) {
+    FragmentManager fragmentManager = fragment.getFragmentManager();
+    if (fragmentManager == null) {
+      throw new IllegalStateException("the fragment is not added to an activity");
+    }
+    synchronized (LifecycleBinder.class) {
+      if (!FRAGMENT_CALLS.containsKey(fragment)) {
+        fragmentManager.registerFragmentLifecycleCallbacks(new FragmentCallbacks(fragment), false);
+      }
+      add(FRAGMENT_CALLS, fragment, call);
+    }
+  }
+
+  private static <K> void add(Map<K, List<ApiCall>> bound, K key, ApiCall call) {
+    List<ApiCall> calls = bound.get(key);
+    if (calls == null) {
+      calls = new ArrayList<>();
+      bound.put(key, calls);
+    }
+    Iterator<ApiCall> iterator = calls.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isDone()) {
+        iterator.remove();
+      }
+    }
+    calls.add(call);
+  }
+
+  private static void cancel(List<ApiCall> calls) {
+    if (calls != null) {
+      for (ApiCall call : calls) {
+        call.cancel();
+      }
+    }
+  }
+
+  private static class ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+      List<ApiCall> calls;
+      synchronized (LifecycleBinder.class) {
+        calls = ACTIVITY_CALLS.remove(activity);
+      }
+      cancel(calls);
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+    }
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+    }
+  }
+
+  /**
+   * Registered once per bound fragment, and unregistered once it is destroyed.
+   */
+  private static class FragmentCallbacks extends FragmentManager.FragmentLifecycleCallbacks {
+    // the fragment manager holds its callbacks strongly, which a destroyed fragment must not stay
+    // reachable through
+    private final WeakReference<Fragment> fragment;
+
+    FragmentCallbacks(Fragment fragment) {
+      this.fragment = new WeakReference<>(fragment);
+    }
+
+    @Override
+    public void onFragmentDestroyed(FragmentManager fm, Fragment f) {
+      if (f != fragment.get()) {
+        return;
+      }
+      fm.unregisterFragmentLifecycleCallbacks(this);
+      List<ApiCall> calls;
+      synchronized (LifecycleBinder.class) {
+        calls = FRAGMENT_CALLS.remove(f);
+      }
+      cancel(calls);
+    }
+  }
+}
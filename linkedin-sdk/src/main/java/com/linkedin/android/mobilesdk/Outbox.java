@@ -0,0 +1,339 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.android.volley.Request;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.internals.OutboxJournal;
+import com.linkedin.android.mobilesdk.listeners.ApiListener;
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable queue for POST, PUT and DELETE calls that must not be lost on a flaky connection.
+ * <p>
+ * Writes are recorded in a journal in the app's files dir before they are sent and replayed one at
+ * a time, in order, until the server accepts or definitely rejects them. Writes still queued when
+ * the process dies are replayed by the next process; their listeners are gone by then, only the
+ * writes survive. Every attempt of a write carries the same Idempotency-Key header, see
+ * {@link OutboxOperation#getId()}.
+ * <p>
+ * When a write fails because the device is offline, the server is unavailable or the session is
+ * not set, replay pauses until connectivity returns or a backoff timer fires.
+ */
+public class Outbox {
+
+  private static final String TAG = Outbox.class.getName();
+  private static final String JOURNAL_FILE = "li_sdk_outbox/journal";
+  private static final int READ_WINDOW = 16;
+  private static final long SYNC_DELAY_MS = 50;
+  private static final long MIN_BACKOFF_MS = 5000;
+  private static final long MAX_BACKOFF_MS = 5 * 60 * 1000;
+
+  private final Context context;
+  private final APIHelper apiHelper;
+  private final OutboxJournal journal;
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(@NonNull Runnable runnable) {
+      return new Thread(runnable, "li-sdk-outbox");
+    }
+  });
+
+  // confined to the executor thread
+  private final Map<String, Operation> operations = new HashMap<>();
+  private final ArrayDeque<OutboxJournal.Entry> window = new ArrayDeque<>();
+  private OutboxJournal.Entry inFlight;
+  private boolean opened;
+  private boolean paused;
+  private boolean syncScheduled;
+  private long backoffMs = MIN_BACKOFF_MS;
+
+  Outbox(@NonNull Context context, @NonNull APIHelper apiHelper) {
+    this.context = context.getApplicationContext();
+    this.apiHelper = apiHelper;
+    this.journal = new OutboxJournal(new File(this.context.getFilesDir(), JOURNAL_FILE));
+    this.context.registerReceiver(new BroadcastReceiver() {
+      @Override
+      public void onReceive(Context context, Intent intent) {
+        if (isConnected()) {
+          resume();
+        }
+      }
+    }, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+    // replay what a previous process left behind
+    resume();
+  }
+
+  /**
+   * Queues a POST call.
+   *
+   * @param url
+   * @param body
+   * @param apiListener notified on the main thread once the write succeeded or failed for good
+   */
+  public OutboxOperation postRequest(@NonNull String url, @Nullable JSONObject body, @Nullable ApiListener apiListener) {
+    return enqueue(Request.Method.POST, url, body, apiListener);
+  }
+
+  /**
+   * Queues a PUT call.
+   *
+   * @param url
+   * @param body
+   * @param apiListener notified on the main thread once the write succeeded or failed for good
+   */
+  public OutboxOperation putRequest(@NonNull String url, @Nullable JSONObject body, @Nullable ApiListener apiListener) {
+    return enqueue(Request.Method.PUT, url, body, apiListener);
+  }
+
+  /**
+   * Queues a DELETE call.
+   *
+   * @param url
+   * @param apiListener notified on the main thread once the write succeeded or failed for good
+   */
+  public OutboxOperation deleteRequest(@NonNull String url, @Nullable ApiListener apiListener) {
+    return enqueue(Request.Method.DELETE, url, null, apiListener);
+  }
+
+  private OutboxOperation enqueue(final int method, final String url, @Nullable JSONObject body,
+                                  @Nullable ApiListener apiListener) {
+    final Operation operation = new Operation(UUID.randomUUID().toString(), apiListener);
+    final String bodyString = body == null ? null : body.toString();
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          openIfNeeded();
+          journal.append(operation.handle.getId(), method, url, bodyString);
+          operations.put(operation.handle.getId(), operation);
+          scheduleSync();
+          pump();
+        } catch (IOException e) {
+          deliverError(operation, new LIApiError("unable to queue the call in the outbox", e));
+        }
+      }
+    });
+    return operation.handle;
+  }
+
+  private void resume() {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        paused = false;
+        pump();
+      }
+    });
+  }
+
+  private void openIfNeeded() throws IOException {
+    if (!opened) {
+      journal.open();
+      opened = true;
+    }
+  }
+
+  private void scheduleSync() {
+    if (syncScheduled) {
+      return;
+    }
+    syncScheduled = true;
+    executor.schedule(new Runnable() {
+      @Override
+      public void run() {
+        syncScheduled = false;
+        try {
+          journal.sync();
+        } catch (IOException e) {
+          Log.e(TAG, "unable to sync the outbox journal", e);
+        }
+      }
+    }, SYNC_DELAY_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sends the next write, unless one is in flight or replay is paused.
+   */
+  private void pump() {
+    if (inFlight != null || paused) {
+      return;
+    }
+    try {
+      openIfNeeded();
+      if (window.isEmpty()) {
+        window.addAll(journal.readPending(READ_WINDOW));
+      }
+      final OutboxJournal.Entry entry = window.poll();
+      if (entry == null) {
+        journal.compactIfNeeded();
+        return;
+      }
+      // the write must be durable before the server may see it
+      journal.sync();
+      inFlight = entry;
+      final JSONObject body = entry.body == null ? null : new JSONObject(entry.body);
+      final RequestOptions options = new RequestOptions.Builder().setIdempotencyKey(entry.idempotencyKey).build();
+      mainHandler.post(new Runnable() {
+        @Override
+        public void run() {
+          apiHelper.request(context, Outbox.this, entry.method, entry.url, body, options, new ApiListener() {
+            @Override
+            public void onApiSuccess(ApiResponse apiResponse) {
+              onResult(entry, apiResponse, null);
+            }
+
+            @Override
+            public void onApiError(LIApiError LIApiError) {
+              onResult(entry, null, LIApiError);
+            }
+          });
+        }
+      });
+    } catch (IOException e) {
+      Log.e(TAG, "unable to read the outbox journal", e);
+    } catch (JSONException e) {
+      // cannot happen, the body was written from a JSONObject
+      complete(inFlight, null, new LIApiError("invalid body in the outbox", e));
+      pump();
+    }
+  }
+
+  private void onResult(final OutboxJournal.Entry entry, final ApiResponse apiResponse, final LIApiError apiError) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (apiError != null && isTransient(apiError)) {
+          inFlight = null;
+          window.addFirst(entry);
+          paused = true;
+          executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+              paused = false;
+              pump();
+            }
+          }, backoffMs, TimeUnit.MILLISECONDS);
+          backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+          return;
+        }
+        backoffMs = MIN_BACKOFF_MS;
+        complete(entry, apiResponse, apiError);
+        pump();
+      }
+    });
+  }
+
+  private void complete(OutboxJournal.Entry entry, ApiResponse apiResponse, LIApiError apiError) {
+    inFlight = null;
+    try {
+      journal.markDone(entry.seq);
+      scheduleSync();
+    } catch (IOException e) {
+      Log.e(TAG, "unable to update the outbox journal", e);
+    }
+    Operation operation = operations.remove(entry.idempotencyKey);
+    if (operation == null) {
+      return;
+    }
+    if (apiError != null) {
+      deliverError(operation, apiError);
+    } else {
+      deliverSuccess(operation, apiResponse);
+    }
+  }
+
+  private void deliverSuccess(final Operation operation, final ApiResponse apiResponse) {
+    operation.handle.setDone();
+    mainHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        if (operation.apiListener != null) {
+          operation.apiListener.onApiSuccess(apiResponse);
+        }
+      }
+    });
+  }
+
+  private void deliverError(final Operation operation, final LIApiError apiError) {
+    operation.handle.setDone();
+    mainHandler.post(new Runnable() {
+      @Override
+      public void run() {
+        if (operation.apiListener != null) {
+          operation.apiListener.onApiError(apiError);
+        }
+      }
+    });
+  }
+
+  /**
+   * @return true if the write may succeed later: no response at all, a 5xx, 408 or 429, or no
+   * valid session
+   */
+  private static boolean isTransient(LIApiError apiError) {
+    if (apiError.getErrorType() == LIApiError.ErrorType.accessTokenIsNotSet
+        || apiError.getErrorType() == LIApiError.ErrorType.circuitOpen
+        || apiError.getErrorType() == LIApiError.ErrorType.rateLimited) {
+      return true;
+    }
+    int status = apiError.getHttpStatusCode();
+    return status < 0 || status >= 500 || status == 408 || status == 429;
+  }
+
+  private boolean isConnected() {
+    ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+    NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+    return networkInfo != null && networkInfo.isConnected();
+  }
+
+  private static class Operation {
+    private final OutboxOperation handle;
+    private final ApiListener apiListener;
+
+    Operation(String id, ApiListener apiListener) {
+      this.handle = new OutboxOperation(id);
+      this.apiListener = apiListener;
+    }
+  }
+}
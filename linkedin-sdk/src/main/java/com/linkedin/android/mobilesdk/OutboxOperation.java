@@ -0,0 +1,49 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Handle of a write queued in the {@link Outbox}.
+ */
+public class OutboxOperation {
+
+  private final String id;
+  private volatile boolean done;
+
+  OutboxOperation(@NonNull String id) {
+    this.id = id;
+  }
+
+  /**
+   * @return the idempotency key sent with every attempt of the write
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return true once the write succeeded or failed for good
+   */
+  public boolean isDone() {
+    return done;
+  }
+
+  void setDone() {
+    done = true;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiSubscriber;
+import com.linkedin.android.mobilesdk.listeners.Page;
+import com.linkedin.android.mobilesdk.listeners.PageListener;
+
+/**
+ * Publishes the items of a {@link Pager}; the next page is asked for only when the items
+ * delivered so far do not cover the subscriber's demand.
+ */
+class PagePublisher<T> implements ApiPublisher<T> {
+
+  private final Pager<T> pager;
+  private final Context context;
+  private boolean subscribed;
+
+  PagePublisher(Pager<T> pager, Context context) {
+    this.pager = pager;
+    this.context = context.getApplicationContext();
+  }
+
+  @Override
+  public void subscribe(@NonNull ApiSubscriber<? super T> subscriber) {
+    synchronized (this) {
+      if (subscribed) {
+        throw new IllegalStateException("publisher already subscribed to");
+      }
+      subscribed = true;
+    }
+    new PageSubscription(subscriber).start();
+  }
+
+  private class PageSubscription extends DemandSubscription<T> implements PageListener<T> {
+    private boolean started;
+    private boolean pageWanted;
+
+    PageSubscription(ApiSubscriber<? super T> subscriber) {
+      super(subscriber);
+    }
+
+    @Override
+    void load() {
+      if (pageWanted) {
+        return;
+      }
+      pageWanted = true;
+      if (!started) {
+        started = true;
+        pager.start(context, this);
+      } else {
+        pager.next();
+      }
+    }
+
+    @Override
+    void onCancel() {
+      pager.cancel();
+    }
+
+    @Override
+    public void onPage(final Page<T> page) {
+      runOnMain(new Runnable() {
+        @Override
+        public void run() {
+          pageWanted = false;
+          onItems(page.getItems());
+        }
+      });
+    }
+
+    @Override
+    public void onPagingComplete() {
+      runOnMain(new Runnable() {
+        @Override
+        public void run() {
+          onDone();
+        }
+      });
+    }
+
+    @Override
+    public void onPagingError(final LIApiError LIApiError) {
+      runOnMain(new Runnable() {
+        @Override
+        public void run() {
+          onFailure(LIApiError);
+        }
+      });
+    }
+  }
+}
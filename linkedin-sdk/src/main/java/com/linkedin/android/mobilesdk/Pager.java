@@ -0,0 +1,387 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.app.Activity;
+import android.content.Context;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.app.Fragment;
+import android.util.JsonReader;
+
+import com.linkedin.android.mobilesdk.binding.TypeAdapter;
+import com.linkedin.android.mobilesdk.binding.TypeAdapters;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.Page;
+import com.linkedin.android.mobilesdk.listeners.PageListener;
+import com.linkedin.android.mobilesdk.listeners.TypedApiListener;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Walks a listing endpoint paged with start / count, such as connections or company updates.
+ * <p>
+ * Typical usage:
+ * <p>
+ * Pager&lt;Person&gt; pager = APIHelper.getInstance(ctx).pager(url, Person.class).start(ctx, listener);
+ * <p>
+ * and {@link #next()} from {@link PageListener#onPage(Page)} once the page has been consumed.
+ * While the caller holds a page, up to {@link #setPrefetchDepth(int)} following pages are loaded
+ * in the background; no more are loaded until the caller asks for them, so memory stays bounded
+ * however long the listing is. Items are decoded off the main thread.
+ * <p>
+ * Like an {@link ApiCall}, a pager only holds the Activity it was started with weakly, and can be
+ * bound to an Activity or Fragment to be cancelled when it is destroyed.
+ */
+public class Pager<T> {
+
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int DEFAULT_PREFETCH_DEPTH = 1;
+  private static final String PARAM_START = "start";
+  private static final String PARAM_COUNT = "count";
+
+  private final APIHelper apiHelper;
+  private final String url;
+  private final TypeAdapter<T> itemAdapter;
+  private int pageSize = DEFAULT_PAGE_SIZE;
+  private int prefetchDepth = DEFAULT_PREFETCH_DEPTH;
+
+  // the application context, the caller's is only held weakly by the api call
+  private Context context;
+  private ApiCall apiCall;
+  private PageListener<T> pageListener;
+  private final ArrayDeque<Page<T>> ready = new ArrayDeque<>();
+  private LIApiError pendingError;
+  private int nextStart;
+  private boolean loading;
+  private boolean exhausted;
+  private boolean wanted;
+  private boolean finished;
+
+  Pager(@NonNull APIHelper apiHelper, @NonNull String url, @NonNull TypeAdapter<T> itemAdapter) {
+    this.apiHelper = apiHelper;
+    this.url = url;
+    this.itemAdapter = itemAdapter;
+  }
+
+  /**
+   * @param pageSize number of items asked for per page
+   */
+  public Pager<T> setPageSize(int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize must be at least 1");
+    }
+    checkNotStarted();
+    this.pageSize = pageSize;
+    return this;
+  }
+
+  /**
+   * @param prefetchDepth number of pages loaded ahead of the one the caller holds; 0 loads a page
+   *                      only when it is asked for
+   */
+  public Pager<T> setPrefetchDepth(int prefetchDepth) {
+    if (prefetchDepth < 0) {
+      throw new IllegalArgumentException("prefetchDepth must not be negative");
+    }
+    checkNotStarted();
+    this.prefetchDepth = prefetchDepth;
+    return this;
+  }
+
+  /**
+   * Starts loading and asks for the first page. A pager can only be started once.
+   *
+   * @return this pager
+   */
+  public Pager<T> start(@NonNull Context context, @NonNull PageListener<T> pageListener) {
+    synchronized (this) {
+      checkNotStarted();
+      this.context = context.getApplicationContext();
+      this.apiCall = apiHelper.openCall(context);
+      this.pageListener = pageListener;
+    }
+    apiCall.setCanceller(new Runnable() {
+      @Override
+      public void run() {
+        cancel();
+      }
+    });
+    next();
+    return this;
+  }
+
+  /**
+   * Streams the items of the listing instead of pages: pages are loaded as far as the
+   * subscriber's demand reaches, plus the prefetch depth. The pager must not have been started;
+   * it is started by the first demand.
+   *
+   * @return a publisher that can be subscribed to once
+   */
+  public ApiPublisher<T> publish(@NonNull Context context) {
+    checkNotStarted();
+    return new PagePublisher<>(this, context);
+  }
+
+  /**
+   * Asks for the next page; it is delivered right away if it was prefetched.
+   */
+  public void next() {
+    synchronized (this) {
+      if (finished || wanted) {
+        return;
+      }
+      wanted = true;
+    }
+    deliver();
+  }
+
+  /**
+   * @return false once the last page was delivered, after an error or after cancellation
+   */
+  public synchronized boolean hasMore() {
+    return !finished;
+  }
+
+  /**
+   * Stops paging: the page being loaded is cancelled, prefetched pages are dropped and the
+   * listener is not called anymore.
+   */
+  public void cancel() {
+    synchronized (this) {
+      if (context == null || finished) {
+        return;
+      }
+      finish();
+    }
+    apiHelper.cancelCalls(this);
+    apiCall.cancel();
+  }
+
+  /**
+   * Cancels paging when the given activity is destroyed.
+   *
+   * @return this pager
+   * @throws IllegalStateException if the pager was not started yet
+   */
+  public Pager<T> bindTo(@NonNull Activity activity) {
+    getApiCall().bindTo(activity);
+    return this;
+  }
+
+  /**
+   * Cancels paging when the given fragment is destroyed.
+   *
+   * @return this pager
+   * @throws IllegalStateException if the pager was not started yet, or if the fragment is not
+   *                               added to an activity
+   */
+  public Pager<T> bindTo(@NonNull Fragment fragment) {
+    getApiCall().bindTo(fragment);
+    return this;
+  }
+
+  private synchronized void checkNotStarted() {
+    if (context != null) {
+      throw new IllegalStateException("pager already started");
+    }
+  }
+
+  private synchronized ApiCall getApiCall() {
+    if (apiCall == null) {
+      throw new IllegalStateException("pager not started yet");
+    }
+    return apiCall;
+  }
+
+  private void deliver() {
+    Page<T> page = null;
+    LIApiError error = null;
+    boolean complete = false;
+    boolean ended;
+    synchronized (this) {
+      if (finished || !wanted) {
+        return;
+      }
+      if (!ready.isEmpty()) {
+        wanted = false;
+        page = ready.poll();
+        if (page.isLast()) {
+          finish();
+        }
+      } else if (pendingError != null) {
+        error = pendingError;
+        finish();
+      } else if (exhausted) {
+        complete = true;
+        finish();
+      }
+      ended = finished;
+    }
+    if (ended) {
+      apiCall.complete();
+    }
+    // load the following page while the caller consumes this one
+    loadNext();
+    if (page != null) {
+      pageListener.onPage(page);
+      if (page.isLast()) {
+        pageListener.onPagingComplete();
+      }
+    } else if (error != null) {
+      pageListener.onPagingError(error);
+    } else if (complete) {
+      pageListener.onPagingComplete();
+    }
+  }
+
+  private void loadNext() {
+    int start;
+    synchronized (this) {
+      if (finished || loading || exhausted || pendingError != null
+          || ready.size() >= prefetchDepth + (wanted ? 1 : 0)) {
+        return;
+      }
+      loading = true;
+      start = nextStart;
+    }
+    String pageUrl = Uri.parse(url).buildUpon()
+        .appendQueryParameter(PARAM_START, Integer.toString(start))
+        .appendQueryParameter(PARAM_COUNT, Integer.toString(pageSize))
+        .build().toString();
+    apiHelper.typedRequest(context, this, pageUrl, new PageAdapter<>(itemAdapter, start, pageSize),
+        new PageLoad(start));
+  }
+
+  private void onPageLoaded(Page<T> page) {
+    synchronized (this) {
+      loading = false;
+      if (finished) {
+        return;
+      }
+      nextStart = page.getStart() + page.getItems().size();
+      exhausted = page.isLast();
+      ready.add(page);
+    }
+    deliver();
+    loadNext();
+  }
+
+  private void onPageFailed(LIApiError error) {
+    synchronized (this) {
+      loading = false;
+      if (finished) {
+        return;
+      }
+      // a failed prefetch is reported once the pages before it were delivered
+      pendingError = error;
+    }
+    deliver();
+  }
+
+  private void finish() {
+    finished = true;
+    ready.clear();
+  }
+
+  /**
+   * Only the first result of a load is used: with {@link APIHelper.CacheMode#CACHE_FIRST} a stored
+   * page is delivered first and its refresh after it, which must not be paged through twice.
+   */
+  private class PageLoad implements TypedApiListener<Page<T>> {
+    private final int start;
+    // guarded by the pager
+    private boolean accepted;
+
+    PageLoad(int start) {
+      this.start = start;
+    }
+
+    private boolean accept() {
+      synchronized (Pager.this) {
+        if (accepted) {
+          return false;
+        }
+        accepted = true;
+        return true;
+      }
+    }
+
+    @Override
+    public void onApiSuccess(Page<T> page) {
+      if (accept()) {
+        // an empty response body ends the listing
+        onPageLoaded(page != null ? page : new Page<>(start, -1, Collections.<T>emptyList(), true));
+      }
+    }
+
+    @Override
+    public void onApiError(LIApiError LIApiError) {
+      if (accept()) {
+        onPageFailed(LIApiError);
+      }
+    }
+  }
+
+  /**
+   * Reads the paging envelope: {"_start": 0, "_count": 50, "_total": 1234, "values": [...]}.
+   * LinkedIn leaves out "values" for an empty page and "_start" / "_count" when the whole listing
+   * fits in one page, so the requested window is used as the cursor.
+   */
+  private static class PageAdapter<T> implements TypeAdapter<Page<T>> {
+    private final TypeAdapter<T> itemAdapter;
+    private final int start;
+    private final int count;
+
+    PageAdapter(TypeAdapter<T> itemAdapter, int start, int count) {
+      this.itemAdapter = itemAdapter;
+      this.start = start;
+      this.count = count;
+    }
+
+    @Override
+    public Page<T> read(JsonReader reader) throws IOException {
+      int total = -1;
+      List<T> items = null;
+      if (!TypeAdapters.isNull(reader)) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+          switch (reader.nextName()) {
+            case "_total":
+              total = TypeAdapters.readInt(reader);
+              break;
+            case "values":
+              items = TypeAdapters.readList(reader, itemAdapter);
+              break;
+            default:
+              reader.skipValue();
+              break;
+          }
+        }
+        reader.endObject();
+      }
+      if (items == null) {
+        items = Collections.emptyList();
+      }
+      boolean last = items.size() < count || (total >= 0 && start + items.size() >= total);
+      return new Page<>(start, total, items, last);
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.linkedin.android.mobilesdk.transport.Transport;
+import com.linkedin.android.mobilesdk.transport.VolleyTransport;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+
+/**
+ * Sizing of the SDK request queue, see {@link com.linkedin.android.mobilesdk.internals.QueueManager#getStats()} for the numbers to size it
+ * from. Defaults match a stock Volley queue.
+ */
+public class QueueConfig {
+
+  private static final int DEFAULT_NETWORK_THREAD_COUNT = 4;
+  private static final int DEFAULT_BYTE_POOL_SIZE_BYTES = 4096;
+  private static final int DEFAULT_CACHE_SIZE_BYTES = 5 * 1024 * 1024;
+  private static final String DEFAULT_THREAD_NAME_PREFIX = "li-sdk-network-";
+  private static final int DEFAULT_RESERVED_THREAD_COUNT = 0;
+  private static final long DEFAULT_LOW_PRIORITY_AGING_MS = 10000;
+
+  private final int networkThreadCount;
+  private final int bytePoolSizeBytes;
+  private final File cacheDirectory;
+  private final int cacheSizeBytes;
+  private final int threadPriority;
+  private final String threadNamePrefix;
+  private final Transport transport;
+  private final int reservedThreadCount;
+  private final long lowPriorityAgingMs;
+  private final Executor deliveryExecutor;
+
+  private QueueConfig(Builder builder) {
+    networkThreadCount = builder.networkThreadCount;
+    bytePoolSizeBytes = builder.bytePoolSizeBytes;
+    cacheDirectory = builder.cacheDirectory;
+    cacheSizeBytes = builder.cacheSizeBytes;
+    threadPriority = builder.threadPriority;
+    threadNamePrefix = builder.threadNamePrefix;
+    transport = builder.transport;
+    reservedThreadCount = builder.reservedThreadCount;
+    lowPriorityAgingMs = builder.lowPriorityAgingMs;
+    deliveryExecutor = builder.deliveryExecutor;
+  }
+
+  public int getNetworkThreadCount() {
+    return networkThreadCount;
+  }
+
+  public int getBytePoolSizeBytes() {
+    return bytePoolSizeBytes;
+  }
+
+  /**
+   * @return the response cache directory, or null for the default one in the app's cache dir
+   */
+  @Nullable
+  public File getCacheDirectory() {
+    return cacheDirectory;
+  }
+
+  public int getCacheSizeBytes() {
+    return cacheSizeBytes;
+  }
+
+  public int getThreadPriority() {
+    return threadPriority;
+  }
+
+  public String getThreadNamePrefix() {
+    return threadNamePrefix;
+  }
+
+  public Transport getTransport() {
+    return transport;
+  }
+
+  public int getReservedThreadCount() {
+    return reservedThreadCount;
+  }
+
+  public long getLowPriorityAgingMs() {
+    return lowPriorityAgingMs;
+  }
+
+  /**
+   * @return the executor listeners are called on, or null for the main thread
+   */
+  @Nullable
+  public Executor getDeliveryExecutor() {
+    return deliveryExecutor;
+  }
+
+  public static class Builder {
+    private int networkThreadCount = DEFAULT_NETWORK_THREAD_COUNT;
+    private int bytePoolSizeBytes = DEFAULT_BYTE_POOL_SIZE_BYTES;
+    private File cacheDirectory;
+    private int cacheSizeBytes = DEFAULT_CACHE_SIZE_BYTES;
+    private int threadPriority = Process.THREAD_PRIORITY_BACKGROUND;
+    private String threadNamePrefix = DEFAULT_THREAD_NAME_PREFIX;
+    private Transport transport = new VolleyTransport();
+    private int reservedThreadCount = DEFAULT_RESERVED_THREAD_COUNT;
+    private long lowPriorityAgingMs = DEFAULT_LOW_PRIORITY_AGING_MS;
+    private Executor deliveryExecutor;
+
+    /**
+     * @param networkThreadCount number of network dispatcher threads, i.e. requests executed
+     *                           concurrently
+     */
+    public Builder setNetworkThreadCount(int networkThreadCount) {
+      if (networkThreadCount < 1) {
+        throw new IllegalArgumentException("networkThreadCount must be at least 1");
+      }
+      this.networkThreadCount = networkThreadCount;
+      return this;
+    }
+
+    /**
+     * @param bytePoolSizeBytes total size of the response buffers kept for reuse
+     */
+    public Builder setBytePoolSizeBytes(int bytePoolSizeBytes) {
+      this.bytePoolSizeBytes = bytePoolSizeBytes;
+      return this;
+    }
+
+    public Builder setCacheDirectory(@NonNull File cacheDirectory) {
+      this.cacheDirectory = cacheDirectory;
+      return this;
+    }
+
+    /**
+     * @param cacheSizeBytes maximum size of the on-disk response cache
+     */
+    public Builder setCacheSizeBytes(int cacheSizeBytes) {
+      this.cacheSizeBytes = cacheSizeBytes;
+      return this;
+    }
+
+    /**
+     * Volley creates its dispatcher threads itself, so instead of a thread factory the priority and
+     * name are applied to each network thread when it picks up its first request.
+     *
+     * @param threadPriority a priority from {@link Process}, e.g. {@link Process#THREAD_PRIORITY_BACKGROUND}
+     */
+    public Builder setThreadPriority(int threadPriority) {
+      this.threadPriority = threadPriority;
+      return this;
+    }
+
+    public Builder setThreadNamePrefix(@NonNull String threadNamePrefix) {
+      this.threadNamePrefix = threadNamePrefix;
+      return this;
+    }
+
+    /**
+     * @param transport HTTP engine of the api calls; file downloads always use HttpURLConnection
+     */
+    public Builder setTransport(@NonNull Transport transport) {
+      this.transport = transport;
+      return this;
+    }
+
+    /**
+     * @param reservedThreadCount network threads NORMAL and LOW priority requests can never
+     *                            occupy, so IMMEDIATE and HIGH requests find one free; none
+     *                            by default, as in a stock Volley queue. Reserving one pays off
+     *                            once interactive calls are made with a HIGH priority, see
+     *                            LaneSchedulerBenchmark for the latency under saturation
+     */
+    public Builder setReservedThreadCount(int reservedThreadCount) {
+      this.reservedThreadCount = reservedThreadCount;
+      return this;
+    }
+
+    /**
+     * @param lowPriorityAgingMs time after which a waiting LOW priority request is admitted
+     *                           ahead of NORMAL ones
+     */
+    public Builder setLowPriorityAgingMs(long lowPriorityAgingMs) {
+      this.lowPriorityAgingMs = lowPriorityAgingMs;
+      return this;
+    }
+
+    /**
+     * Moves the listener calls off the main thread, e.g. to a background pool or a direct
+     * executor. Listeners must then post to the main thread themselves before touching views.
+     * Response bodies are then decoded wherever the listener reads them, instead of on the network
+     * threads as for the main thread, see {@link APIHelper#setDecodeOnNetworkThread(boolean)}.
+     *
+     * @param deliveryExecutor executor the api listeners are called on, instead of the main thread
+     */
+    public Builder setDeliveryExecutor(@NonNull Executor deliveryExecutor) {
+      this.deliveryExecutor = deliveryExecutor;
+      return this;
+    }
+
+    public QueueConfig build() {
+      if (reservedThreadCount < 0 || reservedThreadCount >= networkThreadCount) {
+        throw new IllegalArgumentException("reservedThreadCount must be between 0 and networkThreadCount - 1");
+      }
+      return new QueueConfig(this);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+/**
+ * Client side limits of the SDK calls, see
+ * {@link APIHelper#setRateLimitPolicy(RateLimitPolicy)}.
+ * Calls are admitted by a token bucket refilled at requestsPerSecond and holding up to burst
+ * tokens. A 429 response halves the rate, which then recovers with every successful call.
+ */
+public class RateLimitPolicy {
+
+  private static final double DEFAULT_REQUESTS_PER_SECOND = 10;
+  private static final int DEFAULT_BURST = 20;
+
+  private final double requestsPerSecond;
+  private final int burst;
+
+  private RateLimitPolicy(Builder builder) {
+    requestsPerSecond = builder.requestsPerSecond;
+    burst = builder.burst;
+  }
+
+  public double getRequestsPerSecond() {
+    return requestsPerSecond;
+  }
+
+  public int getBurst() {
+    return burst;
+  }
+
+  public static class Builder {
+    private double requestsPerSecond = DEFAULT_REQUESTS_PER_SECOND;
+    private int burst = DEFAULT_BURST;
+
+    /**
+     * @param requestsPerSecond sustained rate of calls
+     */
+    public Builder setRequestsPerSecond(double requestsPerSecond) {
+      if (requestsPerSecond <= 0) {
+        throw new IllegalArgumentException("requestsPerSecond must be positive");
+      }
+      this.requestsPerSecond = requestsPerSecond;
+      return this;
+    }
+
+    /**
+     * @param burst calls that may be sent at once after an idle period
+     */
+    public Builder setBurst(int burst) {
+      if (burst < 1) {
+        throw new IllegalArgumentException("burst must be at least 1");
+      }
+      this.burst = burst;
+      return this;
+    }
+
+    public RateLimitPolicy build() {
+      return new RateLimitPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.android.volley.Request;
+
+/**
+ * Per call options for {@link APIHelper} requests.
+ * A GET attached to an identical one already in flight shares that request, sent with the options
+ * of the first caller.
+ */
+public class RequestOptions {
+
+  private static final long DEFAULT_MAX_THROTTLE_WAIT_MS = 30000;
+
+  /**
+   * What happens to a call that is over the rate limit.
+   */
+  public enum ThrottleMode {
+    /**
+     * the call waits for a free slot, unless that takes longer than its max wait (default)
+     */
+    QUEUE,
+    /**
+     * the call fails right away with {@link com.linkedin.android.mobilesdk.errors.LIApiError.ErrorType#rateLimited}
+     */
+    REJECT
+  }
+
+  /**
+   * options used by the APIHelper methods that do not take any
+   */
+  public static final RequestOptions DEFAULT = new Builder().build();
+
+  private final Request.Priority priority;
+  private final ThrottleMode throttleMode;
+  private final long maxThrottleWaitMs;
+  private final String idempotencyKey;
+
+  private RequestOptions(Builder builder) {
+    priority = builder.priority;
+    throttleMode = builder.throttleMode;
+    maxThrottleWaitMs = builder.maxThrottleWaitMs;
+    idempotencyKey = builder.idempotencyKey;
+  }
+
+  public Request.Priority getPriority() {
+    return priority;
+  }
+
+  public ThrottleMode getThrottleMode() {
+    return throttleMode;
+  }
+
+  public long getMaxThrottleWaitMs() {
+    return maxThrottleWaitMs;
+  }
+
+  @Nullable
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public static class Builder {
+    private Request.Priority priority = Request.Priority.NORMAL;
+    private ThrottleMode throttleMode = ThrottleMode.QUEUE;
+    private long maxThrottleWaitMs = DEFAULT_MAX_THROTTLE_WAIT_MS;
+    private String idempotencyKey;
+
+    /**
+     * @param priority IMMEDIATE and HIGH are meant for calls a visible screen is waiting on; they
+     *                 are never held back by NORMAL and LOW work. LOW suits background syncs.
+     */
+    public Builder setPriority(@NonNull Request.Priority priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    /**
+     * @param throttleMode      see {@link ThrottleMode}
+     * @param maxThrottleWaitMs in {@link ThrottleMode#QUEUE}, the deadline after which a waiting
+     *                          call is rejected instead
+     */
+    public Builder setThrottleMode(@NonNull ThrottleMode throttleMode, long maxThrottleWaitMs) {
+      this.throttleMode = throttleMode;
+      this.maxThrottleWaitMs = maxThrottleWaitMs;
+      return this;
+    }
+
+    /**
+     * @param idempotencyKey sent as the Idempotency-Key header, so the server can recognize a
+     *                       repeated write
+     */
+    public Builder setIdempotencyKey(@Nullable String idempotencyKey) {
+      this.idempotencyKey = idempotencyKey;
+      return this;
+    }
+
+    public RequestOptions build() {
+      return new RequestOptions(this);
+    }
+  }
+}
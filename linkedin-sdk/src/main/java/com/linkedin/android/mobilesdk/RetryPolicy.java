@@ -0,0 +1,138 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk;
+
+/**
+ * Retry and circuit breaker settings, see {@link APIHelper#setRetryPolicy(RetryPolicy)}.
+ * <p>
+ * A failed call is retried after a random delay between 0 and min(maxDelayMs, baseDelayMs * 2^(attempt - 1))
+ * ("full jitter"), so clients that failed together do not retry together.
+ * 5xx and 429 responses and network failures are retried, and only for idempotent methods unless
+ * {@link Builder#setRetryNonIdempotent(boolean)} is set. A retried 429 waits for the time asked
+ * for by its Retry-After header.
+ */
+public class RetryPolicy {
+
+  private static final int DEFAULT_MAX_ATTEMPTS = 3;
+  private static final long DEFAULT_BASE_DELAY_MS = 500;
+  private static final long DEFAULT_MAX_DELAY_MS = 30000;
+  private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+  private static final long DEFAULT_OPEN_DURATION_MS = 30000;
+
+  private final int maxAttempts;
+  private final long baseDelayMs;
+  private final long maxDelayMs;
+  private final boolean retryNonIdempotent;
+  private final int failureThreshold;
+  private final long openDurationMs;
+
+  private RetryPolicy(Builder builder) {
+    maxAttempts = builder.maxAttempts;
+    baseDelayMs = builder.baseDelayMs;
+    maxDelayMs = builder.maxDelayMs;
+    retryNonIdempotent = builder.retryNonIdempotent;
+    failureThreshold = builder.failureThreshold;
+    openDurationMs = builder.openDurationMs;
+  }
+
+  /**
+   * @return total number of attempts, including the first one
+   */
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public long getBaseDelayMs() {
+    return baseDelayMs;
+  }
+
+  public long getMaxDelayMs() {
+    return maxDelayMs;
+  }
+
+  public boolean isRetryNonIdempotent() {
+    return retryNonIdempotent;
+  }
+
+  public int getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  public long getOpenDurationMs() {
+    return openDurationMs;
+  }
+
+  public static class Builder {
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long baseDelayMs = DEFAULT_BASE_DELAY_MS;
+    private long maxDelayMs = DEFAULT_MAX_DELAY_MS;
+    private boolean retryNonIdempotent;
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private long openDurationMs = DEFAULT_OPEN_DURATION_MS;
+
+    /**
+     * @param maxAttempts total number of attempts, 1 disables retries
+     */
+    public Builder setMaxAttempts(int maxAttempts) {
+      if (maxAttempts < 1) {
+        throw new IllegalArgumentException("maxAttempts must be at least 1");
+      }
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * @param baseDelayMs upper bound of the delay before the first retry; it doubles with every
+     *                    attempt up to maxDelayMs
+     * @param maxDelayMs  upper bound of any retry delay
+     */
+    public Builder setDelays(long baseDelayMs, long maxDelayMs) {
+      if (baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+        throw new IllegalArgumentException("delays must satisfy 0 <= baseDelayMs <= maxDelayMs");
+      }
+      this.baseDelayMs = baseDelayMs;
+      this.maxDelayMs = maxDelayMs;
+      return this;
+    }
+
+    /**
+     * @param retryNonIdempotent also retry POST requests; only safe if the endpoint tolerates
+     *                           duplicates
+     */
+    public Builder setRetryNonIdempotent(boolean retryNonIdempotent) {
+      this.retryNonIdempotent = retryNonIdempotent;
+      return this;
+    }
+
+    /**
+     * @param failureThreshold consecutive failures of an endpoint that open its circuit
+     * @param openDurationMs   how long an open circuit fails calls right away before a single
+     *                         probe call is let through
+     */
+    public Builder setCircuitBreaker(int failureThreshold, long openDurationMs) {
+      if (failureThreshold < 1) {
+        throw new IllegalArgumentException("failureThreshold must be at least 1");
+      }
+      this.failureThreshold = failureThreshold;
+      this.openDurationMs = openDurationMs;
+      return this;
+    }
+
+    public RetryPolicy build() {
+      return new RetryPolicy(this);
+    }
+  }
+}
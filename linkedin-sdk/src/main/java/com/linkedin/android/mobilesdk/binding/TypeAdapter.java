@@ -0,0 +1,34 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.binding;
+
+import android.util.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Reads a T from a json stream.
+ * Implementations for classes annotated with {@link JsonModel} are generated at compile time by
+ * the linkedin-sdk-compiler annotation processor.
+ */
+public interface TypeAdapter<T> {
+
+  /**
+   * @param reader positioned at the value to read
+   * @return the value, or null if the json value is null
+   */
+  T read(JsonReader reader) throws IOException;
+}
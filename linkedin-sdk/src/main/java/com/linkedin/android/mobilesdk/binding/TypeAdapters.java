@@ -0,0 +1,151 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.binding;
+
+import android.support.annotation.NonNull;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adapters for json primitives and lookup of generated {@link JsonModel} adapters.
+ * Generated adapters call the read helpers below, which map a json null to the type's default.
+ */
+public final class TypeAdapters {
+
+  /**
+   * suffix of the adapter class generated for a {@link JsonModel} class
+   */
+  public static final String GENERATED_SUFFIX = "_JsonAdapter";
+  private static final String INSTANCE_FIELD = "INSTANCE";
+
+  private static final ConcurrentHashMap<Class<?>, TypeAdapter<?>> generatedAdapters = new ConcurrentHashMap<>();
+
+  public static final TypeAdapter<String> STRING = new TypeAdapter<String>() {
+    @Override
+    public String read(JsonReader reader) throws IOException {
+      return readString(reader);
+    }
+  };
+
+  public static final TypeAdapter<Integer> INTEGER = new TypeAdapter<Integer>() {
+    @Override
+    public Integer read(JsonReader reader) throws IOException {
+      return isNull(reader) ? null : reader.nextInt();
+    }
+  };
+
+  public static final TypeAdapter<Long> LONG = new TypeAdapter<Long>() {
+    @Override
+    public Long read(JsonReader reader) throws IOException {
+      return isNull(reader) ? null : reader.nextLong();
+    }
+  };
+
+  public static final TypeAdapter<Boolean> BOOLEAN = new TypeAdapter<Boolean>() {
+    @Override
+    public Boolean read(JsonReader reader) throws IOException {
+      return isNull(reader) ? null : reader.nextBoolean();
+    }
+  };
+
+  public static final TypeAdapter<Double> DOUBLE = new TypeAdapter<Double>() {
+    @Override
+    public Double read(JsonReader reader) throws IOException {
+      return isNull(reader) ? null : reader.nextDouble();
+    }
+  };
+
+  private TypeAdapters() {
+  }
+
+  /**
+   * Finds the adapter generated for a {@link JsonModel} class. The lookup is done once per class;
+   * reading never uses reflection.
+   *
+   * @throws IllegalArgumentException if no adapter was generated for the class
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> TypeAdapter<T> get(@NonNull Class<T> type) {
+    TypeAdapter<?> adapter = generatedAdapters.get(type);
+    if (adapter == null) {
+      String packageName = type.getPackage() == null ? "" : type.getPackage().getName();
+      String simpleName = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+      String adapterName = (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + GENERATED_SUFFIX;
+      try {
+        adapter = (TypeAdapter<?>) Class.forName(adapterName, true, type.getClassLoader()).getField(INSTANCE_FIELD).get(null);
+      } catch (ClassNotFoundException | NoSuchFieldException | IllegalAccessException e) {
+        throw new IllegalArgumentException("no generated adapter for " + type.getName()
+            + ", is it annotated with @JsonModel?", e);
+      }
+      generatedAdapters.putIfAbsent(type, adapter);
+    }
+    return (TypeAdapter<T>) adapter;
+  }
+
+  public static String readString(JsonReader reader) throws IOException {
+    return isNull(reader) ? null : reader.nextString();
+  }
+
+  public static int readInt(JsonReader reader) throws IOException {
+    return isNull(reader) ? 0 : reader.nextInt();
+  }
+
+  public static long readLong(JsonReader reader) throws IOException {
+    return isNull(reader) ? 0L : reader.nextLong();
+  }
+
+  public static boolean readBoolean(JsonReader reader) throws IOException {
+    return !isNull(reader) && reader.nextBoolean();
+  }
+
+  public static double readDouble(JsonReader reader) throws IOException {
+    return isNull(reader) ? 0d : reader.nextDouble();
+  }
+
+  /**
+   * Reads a json array with the given element adapter.
+   */
+  public static <T> List<T> readList(JsonReader reader, TypeAdapter<T> elementAdapter) throws IOException {
+    if (isNull(reader)) {
+      return null;
+    }
+    List<T> list = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      list.add(elementAdapter.read(reader));
+    }
+    reader.endArray();
+    return list;
+  }
+
+  /**
+   * Consumes a json null.
+   *
+   * @return true if the next value was null
+   */
+  public static boolean isNull(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return true;
+    }
+    return false;
+  }
+}
@@ -20,25 +20,29 @@ import android.util.Log;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.nio.charset.Charset;
+
+/**
+ * Error body returned by the api. The fields are read once when the body is parsed; the parsed
+ * json is not kept.
+ */
 public class ApiErrorResponse {
 
   private static final String TAG = ApiErrorResponse.class.getName();
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
   public static final String ERROR_CODE = "errorCode";
   public static final String MESSAGE = "message";
   public static final String REQUEST_ID = "requestId";
   public static final String STATUS = "status";
   public static final String TIMESTAMP = "timestamp";
-  private final JSONObject jsonApiErrorResponse;
 
-  private int errorCode;
-  private String message;
-  private String requestId;
-  private int status;
-  private long timestamp;
+  private final int errorCode;
+  private final String message;
+  private final String requestId;
+  private final int status;
+  private final long timestamp;
 
-  private ApiErrorResponse(JSONObject jsonApiErrorResponse, int errorCode, String message, String
-      requestId, int status, long timestamp) {
-    this.jsonApiErrorResponse = jsonApiErrorResponse;
+  private ApiErrorResponse(int errorCode, String message, String requestId, int status, long timestamp) {
     this.errorCode = errorCode;
     this.message = message;
     this.requestId = requestId;
@@ -46,44 +50,51 @@ public class ApiErrorResponse {
     this.timestamp = timestamp;
   }
 
+  /**
+   * @param apiErrorResponseData error body, always decoded as UTF-8 as the api sends it
+   */
   public static ApiErrorResponse build(byte[] apiErrorResponseData) throws JSONException {
-    return build(new JSONObject(new String(apiErrorResponseData)));
-
+    return build(new JSONObject(new String(apiErrorResponseData, UTF_8)));
   }
 
   public static ApiErrorResponse build(JSONObject jsonErr) {
-    return new ApiErrorResponse(jsonErr, jsonErr.optInt(ERROR_CODE, -1), jsonErr.optString(MESSAGE),
+    return new ApiErrorResponse(jsonErr.optInt(ERROR_CODE, -1), jsonErr.optString(MESSAGE),
         jsonErr.optString(REQUEST_ID), jsonErr.optInt(STATUS, -1), jsonErr.optLong(TIMESTAMP, 0));
   }
 
   public int getErrorCode() {
-    return jsonApiErrorResponse.optInt(ERROR_CODE, -1);
+    return errorCode;
   }
 
   public String getMessage() {
-    return jsonApiErrorResponse.optString(MESSAGE);
+    return message;
   }
 
   public String getRequestId() {
-    return jsonApiErrorResponse.optString(REQUEST_ID);
+    return requestId;
   }
 
   public int getStatus() {
-    return jsonApiErrorResponse.optInt(STATUS, -1);
+    return status;
   }
 
   public long getTimestamp() {
-    return jsonApiErrorResponse.optLong(TIMESTAMP, 0);
+    return timestamp;
   }
 
   @Override
   public String toString() {
     try {
-      return jsonApiErrorResponse.toString(2);
+      return new JSONObject()
+          .put(ERROR_CODE, errorCode)
+          .put(MESSAGE, message)
+          .put(REQUEST_ID, requestId)
+          .put(STATUS, status)
+          .put(TIMESTAMP, timestamp)
+          .toString(2);
     } catch (JSONException exception) {
       Log.e(TAG, exception.getMessage(), exception);
     }
     return null;
   }
 }
-
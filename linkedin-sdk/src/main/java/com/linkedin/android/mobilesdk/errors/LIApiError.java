@@ -24,17 +24,104 @@ public class LIApiError extends Exception {
   public enum ErrorType {
     accessTokenIsNotSet,
     apiErrorResponse,
+    circuitOpen,
+    rateLimited,
+    responseTooLarge,
+    deadlineExceeded,
     other
   }
 
-  private int httpStatusCode = -1;
-  private ApiErrorResponse apiErrorResponse;
-  private ErrorType errorType;
+  /**
+   * What a failed call is worth doing about, derived from its http status, see {@link #getCategory()}.
+   */
+  public enum Category {
+    /** the call was not answered, or failed before it was sent */
+    noResponse,
+    badRequest,
+    /** the access token is invalid or expired */
+    unauthorized,
+    /** the member did not grant the permission the call needs */
+    forbidden,
+    notFound,
+    conflict,
+    /** the throttle limit of the application or member was reached */
+    throttled,
+    /** any other 4xx */
+    clientError,
+    /** the server is temporarily unable to answer, the call may be retried later */
+    unavailable,
+    /** any other 5xx */
+    serverError,
+    other
+  }
+
+  private static final Category[] CATEGORIES = new Category[600];
+
+  static {
+    for (int status = 400; status < 500; status++) {
+      CATEGORIES[status] = Category.clientError;
+    }
+    for (int status = 500; status < 600; status++) {
+      CATEGORIES[status] = Category.serverError;
+    }
+    CATEGORIES[400] = Category.badRequest;
+    CATEGORIES[401] = Category.unauthorized;
+    CATEGORIES[403] = Category.forbidden;
+    CATEGORIES[404] = Category.notFound;
+    CATEGORIES[409] = Category.conflict;
+    CATEGORIES[429] = Category.throttled;
+    CATEGORIES[502] = Category.unavailable;
+    CATEGORIES[503] = Category.unavailable;
+    CATEGORIES[504] = Category.unavailable;
+  }
+
+  private static volatile boolean httpStackTraces;
+
+  private final int httpStatusCode;
+  private final ApiErrorResponse apiErrorResponse;
+  private final ErrorType errorType;
+  private final Category category;
+
+  /**
+   * Errors built from an http error response carry no stack trace, which would only point into
+   * the network thread; filling it in is the bulk of the cost of an error when many calls fail at
+   * once. Enable this to have them captured anyway.
+   */
+  public static void setHttpStackTraces(boolean enabled) {
+    httpStackTraces = enabled;
+  }
 
   public static LIApiError buildLiApiError(VolleyError volleyError) {
+    if (volleyError.networkResponse != null && !httpStackTraces) {
+      return new HttpError(volleyError);
+    }
     return new LIApiError(volleyError);
   }
 
+  /**
+   * @return the category of the given http status, {@link Category#noResponse} if there is none
+   */
+  public static Category categorize(int httpStatusCode) {
+    if (httpStatusCode < 0) {
+      return Category.noResponse;
+    }
+    Category category = httpStatusCode < CATEGORIES.length ? CATEGORIES[httpStatusCode] : null;
+    return category != null ? category : Category.other;
+  }
+
+  private static Category categorize(ErrorType errorType) {
+    switch (errorType) {
+      case accessTokenIsNotSet:
+        return Category.unauthorized;
+      case rateLimited:
+        return Category.throttled;
+      case responseTooLarge:
+        return Category.other;
+      default:
+        return Category.noResponse;
+    }
+  }
+
   public LIApiError(String detailMessage, Throwable throwable) {
     this(ErrorType.other, detailMessage, throwable);
   }
@@ -42,19 +129,29 @@ public class LIApiError extends Exception {
   public LIApiError(ErrorType errorType, String detailMessage, Throwable throwable) {
     super(detailMessage, throwable);
     this.errorType = errorType;
+    this.httpStatusCode = -1;
+    this.apiErrorResponse = null;
+    this.category = categorize(errorType);
   }
 
   public LIApiError(VolleyError volleyError) {
-    super(volleyError.getMessage(), volleyError.fillInStackTrace());
+    super(volleyError.getMessage(), volleyError);
+    ApiErrorResponse response = null;
+    ErrorType type = null;
     if (volleyError.networkResponse != null) {
       httpStatusCode = volleyError.networkResponse.statusCode;
       try {
-        apiErrorResponse = ApiErrorResponse.build(volleyError.networkResponse.data);
-        errorType = ErrorType.apiErrorResponse;
+        response = ApiErrorResponse.build(volleyError.networkResponse.data);
+        type = ErrorType.apiErrorResponse;
       } catch (JSONException e) {
-        errorType = ErrorType.other;
+        type = ErrorType.other;
       }
+    } else {
+      httpStatusCode = -1;
     }
+    apiErrorResponse = response;
+    errorType = type;
+    category = categorize(httpStatusCode);
   }
 
   public ApiErrorResponse getApiErrorResponse() {
@@ -65,6 +162,14 @@ public class LIApiError extends Exception {
     return errorType;
   }
 
+  /**
+   * @return the category of the http status of the failed call, computed once when the error was
+   * built, so callers can switch on it
+   */
+  public Category getCategory() {
+    return category;
+  }
+
   public int getHttpStatusCode() {
     return httpStatusCode;
   }
@@ -73,4 +178,19 @@ public class LIApiError extends Exception {
   public String toString() {
     return apiErrorResponse == null ? "exceptionMsg: " + super.getMessage() : apiErrorResponse.toString();
   }
+
+  /**
+   * Expected http failure, built without a stack trace.
+   */
+  private static final class HttpError extends LIApiError {
+
+    HttpError(VolleyError volleyError) {
+      super(volleyError);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
 }
@@ -0,0 +1,88 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Headers sent with every LinkedIn REST api call.
+ */
+public final class ApiHeaders {
+
+  private static final String HEADER_CONTENT_TYPE = "Content-Type";
+  private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String HEADER_AUTHORIZATION = "Authorization";
+  private static final String HEADER_SRC = "x-li-src";
+  private static final String HEADER_LI_FORMAT = "x-li-format";
+  private static final String HEADER_LI_VER = "x-li-msdk-ver";
+  private static final String CONTENT_VALUE = "application/json";
+  private static final String HEADER_SRC_VALUE = "msdk";
+  private static final String HEADER_LI_FORMAT_VALUE = "json";
+  private static final String HEADER_LI_PLFM = "x-li-plfm";
+  private static final String HEADER_LI_PLFM_ANDROID = "ANDROID_SDK";
+
+  private static volatile Block current;
+
+  private ApiHeaders() {
+  }
+
+  /**
+   * The header block is built once per access token and shared by all requests using it.
+   *
+   * @return an unmodifiable map with the LinkedIn headers for the given access token
+   */
+  @NonNull
+  public static Map<String, String> forToken(@NonNull String accessToken) {
+    Block block = current;
+    if (block == null || !block.accessToken.equals(accessToken)) {
+      block = new Block(accessToken, Collections.unmodifiableMap(build(accessToken)));
+      current = block;
+    }
+    return block.headers;
+  }
+
+  /**
+   * @return a new, modifiable map with the LinkedIn headers for the given access token
+   */
+  @NonNull
+  public static Map<String, String> build(@NonNull String accessToken) {
+    HashMap<String, String> headers = new HashMap<>();
+    headers.put(HEADER_CONTENT_TYPE, CONTENT_VALUE);
+    // set explicitly so the http stack hands over the compressed body and the SDK can measure it
+    headers.put(HEADER_ACCEPT_ENCODING, GzipCodec.ENCODING);
+    headers.put(HEADER_AUTHORIZATION, "Bearer " + accessToken);
+    headers.put(HEADER_SRC, HEADER_SRC_VALUE);
+    headers.put(HEADER_LI_FORMAT, HEADER_LI_FORMAT_VALUE);
+    headers.put(HEADER_LI_VER, BuildConfig.MSDK_VERSION);
+    headers.put(HEADER_LI_PLFM, HEADER_LI_PLFM_ANDROID);
+
+    return headers;
+  }
+
+  private static final class Block {
+    private final String accessToken;
+    private final Map<String, String> headers;
+
+    Block(String accessToken, Map<String, String> headers) {
+      this.accessToken = accessToken;
+      this.headers = headers;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiListener;
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+
+import org.json.JSONObject;
+
+import java.net.HttpURLConnection;
+import java.util.Map;
+
+/**
+ * Request delivering an {@link ApiResponse}.
+ * The response body is handed over as raw bytes and decoded lazily by the caller, unless
+ * {@link #setDecodeOnNetworkThread(boolean)} asked for it to be decoded to json on the network
+ * thread, as the APIHelper does when responses are delivered on the main thread.
+ */
+public class ApiResponseRequest extends LIApiRequest<ApiResponse> {
+
+  private static final String LOCATION_HEADER = "Location";
+
+  private final ApiListener apiListener;
+  private boolean decodeOnNetworkThread;
+
+  public ApiResponseRequest(int method, @NonNull String url, @NonNull Map<String, String> headers,
+                            @Nullable JSONObject body, boolean cacheFirst, long maxStaleMs,
+                            @Nullable ApiListener apiListener) {
+    super(method, url, headers, body, cacheFirst, maxStaleMs);
+    this.apiListener = apiListener;
+  }
+
+  private ApiResponseRequest(ApiResponseRequest previous) {
+    super(previous);
+    this.apiListener = previous.apiListener;
+    this.decodeOnNetworkThread = previous.decodeOnNetworkThread;
+  }
+
+  public void setDecodeOnNetworkThread(boolean decodeOnNetworkThread) {
+    this.decodeOnNetworkThread = decodeOnNetworkThread;
+  }
+
+  @Override
+  protected ApiResponseRequest copy() {
+    return new ApiResponseRequest(this);
+  }
+
+  @Override
+  protected ApiResponse parseResult(NetworkResponse response) {
+    String location = response.headers.get(LOCATION_HEADER);
+    // a 304 carries the stored body, so present it as the original successful response
+    int statusCode = response.notModified ? HttpURLConnection.HTTP_OK : response.statusCode;
+    ApiResponse apiResponse = new ApiResponse(statusCode, response.data,
+        HttpHeaderParser.parseCharset(response.headers), location == null ? "" : location);
+    if (decodeOnNetworkThread) {
+      apiResponse.prepareJson();
+    }
+    return apiResponse;
+  }
+
+  @Override
+  protected void deliverResult(ApiResponse response) {
+    if (apiListener instanceof RequestCoalescer.Flight && isIntermediate()) {
+      ((RequestCoalescer.Flight) apiListener).onIntermediateResponse(response);
+    } else if (apiListener != null) {
+      apiListener.onApiSuccess(response);
+    }
+  }
+
+  @Override
+  protected void onRefreshUnchanged(ApiResponse result) {
+    if (apiListener instanceof RequestCoalescer.Flight) {
+      ((RequestCoalescer.Flight) apiListener).onRefreshUnchanged(result);
+    }
+  }
+
+  @Override
+  protected int getCallerCount() {
+    return apiListener instanceof RequestCoalescer.Flight ? ((RequestCoalescer.Flight) apiListener).getCallerCount() : 1;
+  }
+
+  @Override
+  protected void deliverApiError(LIApiError error) {
+    if (apiListener != null) {
+      apiListener.onApiError(error);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.SystemClock;
+
+/**
+ * Circuit breaker of a single endpoint.
+ * CLOSED lets every call through and counts consecutive failures; once the threshold is reached it
+ * turns OPEN and rejects calls for openDurationMs. After that it is HALF_OPEN: a single probe call
+ * is let through, its success closes the circuit and its failure opens it again.
+ */
+class CircuitBreaker {
+
+  enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long openDurationMs;
+
+  private State state = State.CLOSED;
+  private int failureCount;
+  private long openedAt;
+  private long probeStartedAt;
+
+  CircuitBreaker(int failureThreshold, long openDurationMs) {
+    this.failureThreshold = failureThreshold;
+    this.openDurationMs = openDurationMs;
+  }
+
+  synchronized boolean allowRequest() {
+    long now = SystemClock.elapsedRealtime();
+    switch (state) {
+      case OPEN:
+        if (now - openedAt < openDurationMs) {
+          return false;
+        }
+        state = State.HALF_OPEN;
+        probeStartedAt = now;
+        return true;
+      case HALF_OPEN:
+        // a probe that never reported back (e.g. it was cancelled) must not block the endpoint forever
+        if (now - probeStartedAt < openDurationMs) {
+          return false;
+        }
+        probeStartedAt = now;
+        return true;
+      default:
+        return true;
+    }
+  }
+
+  synchronized void onSuccess() {
+    state = State.CLOSED;
+    failureCount = 0;
+  }
+
+  synchronized void onFailure() {
+    failureCount++;
+    if (state == State.HALF_OPEN || failureCount >= failureThreshold) {
+      state = State.OPEN;
+      openedAt = SystemClock.elapsedRealtime();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.Process;
+
+import com.android.volley.Network;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.VolleyError;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps the transport's network: names and prioritizes the dispatcher threads, counts the
+ * requests executing on them and reports the start and outcome of every network attempt to the
+ * request, for the circuit breakers and the api events. Cache hits never get here.
+ * {@link DownloadRequest}s bypass the transport and are streamed to their file by the
+ * {@link FileDownloader}.
+ */
+class DispatcherNetwork implements Network {
+
+  private final Network network;
+  private final String threadNamePrefix;
+  private final int threadPriority;
+  private final AtomicInteger threadCount = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  DispatcherNetwork(Network network, String threadNamePrefix, int threadPriority) {
+    this.network = network;
+    this.threadNamePrefix = threadNamePrefix;
+    this.threadPriority = threadPriority;
+  }
+
+  @Override
+  public NetworkResponse performRequest(Request<?> request) throws VolleyError {
+    Thread thread = Thread.currentThread();
+    if (!thread.getName().startsWith(threadNamePrefix)) {
+      // Volley starts its dispatcher threads itself, so they are set up on first use
+      thread.setName(threadNamePrefix + threadCount.incrementAndGet());
+      Process.setThreadPriority(threadPriority);
+    }
+    return execute(request);
+  }
+
+  /**
+   * Executes the request on the calling thread, which is left as it is.
+   */
+  NetworkResponse execute(Request<?> request) throws VolleyError {
+    if (request instanceof LIApiRequest && ((LIApiRequest<?>) request).outlivesToken(0)) {
+      // the token expired while the request was queued
+      throw new TokenExpiredError();
+    }
+    inFlight.incrementAndGet();
+    if (request instanceof LIApiRequest) {
+      ((LIApiRequest<?>) request).onNetworkStart();
+    }
+    try {
+      NetworkResponse response;
+      try {
+        response = request instanceof DownloadRequest
+            ? FileDownloader.download((DownloadRequest) request) : network.performRequest(request);
+      } catch (VolleyError e) {
+        if (request instanceof LIApiRequest) {
+          throw ((LIApiRequest<?>) request).onNetworkFailure(e);
+        }
+        throw e;
+      }
+      if (request instanceof LIApiRequest) {
+        // gzip encoded bodies are decoded here, before they are parsed or cached
+        response = ((LIApiRequest<?>) request).onNetworkSuccess(response);
+      }
+      return response;
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  int getInFlightCount() {
+    return inFlight.get();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.android.volley.NetworkResponse;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.DownloadListener;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * GET request whose response body is streamed to a file by {@link FileDownloader} instead of
+ * being buffered in memory. Downloads are never stored in the response cache.
+ */
+public class DownloadRequest extends LIApiRequest<File> {
+
+  private static final long PROGRESS_INTERVAL_MS = 100;
+  private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+  private final File file;
+  private final long maxBytes;
+  private final DownloadListener downloadListener;
+  // written by the network thread only
+  private long lastProgressAt;
+
+  /**
+   * @param file     where the body is written; replaced only once the download completed
+   * @param maxBytes downloads larger than this fail with {@link LIApiError.ErrorType#responseTooLarge}
+   */
+  public DownloadRequest(@NonNull String url, @NonNull Map<String, String> headers, @NonNull File file,
+                         long maxBytes, @Nullable DownloadListener downloadListener) {
+    super(Method.GET, url, headers, null, false, 0);
+    this.file = file;
+    this.maxBytes = maxBytes;
+    this.downloadListener = downloadListener;
+    setShouldCache(false);
+  }
+
+  private DownloadRequest(DownloadRequest previous) {
+    super(previous);
+    this.file = previous.file;
+    this.maxBytes = previous.maxBytes;
+    this.downloadListener = previous.downloadListener;
+  }
+
+  @Override
+  protected DownloadRequest copy() {
+    return new DownloadRequest(this);
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Called on the network thread as the body is written; forwarded to the main thread at most
+   * every {@value #PROGRESS_INTERVAL_MS} ms and once the body is complete.
+   */
+  void onProgress(final long bytesWritten, final long totalBytes, boolean complete) {
+    if (downloadListener == null) {
+      return;
+    }
+    long now = SystemClock.elapsedRealtime();
+    if (!complete && now - lastProgressAt < PROGRESS_INTERVAL_MS) {
+      return;
+    }
+    lastProgressAt = now;
+    MAIN_HANDLER.post(new Runnable() {
+      @Override
+      public void run() {
+        if (!isCanceled()) {
+          downloadListener.onDownloadProgress(bytesWritten, totalBytes);
+        }
+      }
+    });
+  }
+
+  @Override
+  protected File parseResult(NetworkResponse response) {
+    return file;
+  }
+
+  /**
+   * Results follow the progress to the main thread even with another delivery executor, so the
+   * listener never sees progress after the download finished.
+   */
+  @Override
+  protected void deliverResult(final File result) {
+    if (downloadListener != null) {
+      runOnMain(new Runnable() {
+        @Override
+        public void run() {
+          downloadListener.onDownloadSuccess(result);
+        }
+      });
+    }
+  }
+
+  @Override
+  protected void deliverApiError(final LIApiError error) {
+    if (downloadListener != null) {
+      runOnMain(new Runnable() {
+        @Override
+        public void run() {
+          downloadListener.onDownloadError(error);
+        }
+      });
+    }
+  }
+
+  private static void runOnMain(Runnable runnable) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      runnable.run();
+    } else {
+      MAIN_HANDLER.post(runnable);
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.SystemClock;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Executes {@link DownloadRequest}s: the response body goes from the connection to the target
+ * file through a FileChannel and a bounded buffer, so a download never holds more than
+ * {@value #BUFFER_SIZE} bytes of it in memory. Gzip encoded bodies are decoded on the fly with the
+ * {@link GzipCodec} inflaters. The body is written to a ".part" file that replaces the target
+ * once complete.
+ * <p>
+ * A {@link com.linkedin.android.mobilesdk.transport.Transport} only provides a Volley Network,
+ * which reads whole bodies into memory, so downloads are made with HttpURLConnection whatever
+ * transport the queue was configured with.
+ */
+final class FileDownloader {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_ERROR_BODY_SIZE = 64 * 1024;
+  private static final String PART_SUFFIX = ".part";
+
+  private FileDownloader() {
+  }
+
+  static NetworkResponse download(DownloadRequest request) throws VolleyError {
+    long requestStart = SystemClock.elapsedRealtime();
+    HttpURLConnection connection = null;
+    boolean responded = false;
+    NetworkResponse errorResponse = null;
+    try {
+      connection = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+      connection.setConnectTimeout(request.getTimeoutMs());
+      connection.setReadTimeout(request.getTimeoutMs());
+      connection.setUseCaches(false);
+      for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+        connection.setRequestProperty(header.getKey(), header.getValue());
+      }
+      int statusCode = connection.getResponseCode();
+      responded = true;
+      request.onFirstByte();
+      Map<String, String> headers = convertHeaders(connection.getHeaderFields());
+      if (statusCode < 200 || statusCode > 299) {
+        errorResponse = new NetworkResponse(statusCode, readErrorBody(connection), headers, false,
+            SystemClock.elapsedRealtime() - requestStart);
+        throw new IOException();
+      }
+      long contentLength = connection.getContentLength();
+      if (contentLength > request.getMaxBytes()) {
+        throw new ResponseTooLargeError(request.getMaxBytes());
+      }
+      InputStream in = connection.getInputStream();
+      if (GzipCodec.isGzip(headers)) {
+        // the decoded size is not known up front
+        in = GzipCodec.decodingStream(in);
+        contentLength = -1;
+      }
+      writeBody(request, in, contentLength);
+      return new NetworkResponse(statusCode, new byte[0], headers, false,
+          SystemClock.elapsedRealtime() - requestStart);
+    } catch (SocketTimeoutException e) {
+      throw new TimeoutError();
+    } catch (IOException e) {
+      if (errorResponse == null) {
+        throw responded ? new NetworkError(e) : new NoConnectionError(e);
+      }
+      int statusCode = errorResponse.statusCode;
+      if (statusCode == HttpURLConnection.HTTP_UNAUTHORIZED || statusCode == HttpURLConnection.HTTP_FORBIDDEN) {
+        throw new AuthFailureError(errorResponse);
+      }
+      throw new ServerError(errorResponse);
+    } finally {
+      if (connection != null) {
+        connection.disconnect();
+      }
+    }
+  }
+
+  private static void writeBody(DownloadRequest request, InputStream in, long contentLength)
+      throws IOException, VolleyError {
+    File target = request.getFile();
+    File part = new File(target.getPath() + PART_SUFFIX);
+    boolean complete = false;
+    FileOutputStream out = new FileOutputStream(part);
+    try {
+      FileChannel channel = out.getChannel();
+      ReadableByteChannel source = Channels.newChannel(in);
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      long written = 0;
+      while (source.read(buffer) != -1) {
+        if (request.isCanceled()) {
+          throw new VolleyError("download cancelled");
+        }
+        buffer.flip();
+        written += buffer.remaining();
+        if (written > request.getMaxBytes()) {
+          throw new ResponseTooLargeError(request.getMaxBytes());
+        }
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        buffer.clear();
+        request.onProgress(written, contentLength, false);
+      }
+      channel.force(false);
+      request.onProgress(written, contentLength, true);
+      complete = true;
+    } finally {
+      in.close();
+      out.close();
+      if (!complete) {
+        part.delete();
+      }
+    }
+    if (!part.renameTo(target)) {
+      target.delete();
+      if (!part.renameTo(target)) {
+        part.delete();
+        throw new IOException("unable to move download to " + target);
+      }
+    }
+  }
+
+  private static byte[] readErrorBody(HttpURLConnection connection) throws IOException {
+    InputStream in = connection.getErrorStream();
+    if (in == null) {
+      return new byte[0];
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      byte[] buffer = new byte[4096];
+      int count;
+      while (bytes.size() < MAX_ERROR_BODY_SIZE && (count = in.read(buffer)) != -1) {
+        bytes.write(buffer, 0, count);
+      }
+    } finally {
+      in.close();
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Map<String, String> convertHeaders(Map<String, List<String>> headerFields) {
+    Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (Map.Entry<String, List<String>> header : headerFields.entrySet()) {
+      // the status line is reported under a null key
+      if (header.getKey() != null && !header.getValue().isEmpty()) {
+        headers.put(header.getKey(), header.getValue().get(0));
+      }
+    }
+    return headers;
+  }
+}
@@ -0,0 +1,396 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Gzip encoding of request and response bodies.
+ * GZIPOutputStream and GZIPInputStream allocate a new native Deflater / Inflater per stream, so the
+ * gzip header and trailer are written and checked here around raw deflate data, with the
+ * Deflaters and Inflaters kept in small pools. {@link #decodingStream(InputStream)} does the same
+ * for bodies that are streamed rather than held in memory.
+ */
+final class GzipCodec {
+
+  static final String ENCODING = "gzip";
+
+  private static final int MAGIC_1 = 0x1f;
+  private static final int MAGIC_2 = 0x8b;
+  private static final int METHOD_DEFLATE = 8;
+  private static final int FLAG_HCRC = 0x02;
+  private static final int FLAG_EXTRA = 0x04;
+  private static final int FLAG_NAME = 0x08;
+  private static final int FLAG_COMMENT = 0x10;
+  private static final int HEADER_SIZE = 10;
+  private static final int TRAILER_SIZE = 8;
+  private static final int BUFFER_SIZE = 8 * 1024;
+  private static final int POOL_SIZE = 4;
+
+  private static final ArrayDeque<Deflater> DEFLATERS = new ArrayDeque<>(POOL_SIZE);
+  private static final ArrayDeque<Inflater> INFLATERS = new ArrayDeque<>(POOL_SIZE);
+
+  private GzipCodec() {
+  }
+
+  /**
+   * @return true if the headers declare a gzip encoded body
+   */
+  static boolean isGzip(Map<String, String> headers) {
+    String encoding = headers == null ? null : headers.get("Content-Encoding");
+    return encoding != null && ENCODING.equalsIgnoreCase(encoding.trim());
+  }
+
+  static byte[] encode(byte[] data) {
+    Deflater deflater = obtainDeflater();
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + HEADER_SIZE + TRAILER_SIZE);
+      out.write(new byte[]{(byte) MAGIC_1, (byte) MAGIC_2, METHOD_DEFLATE, 0, 0, 0, 0, 0, 0, 0}, 0, HEADER_SIZE);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      CRC32 crc = new CRC32();
+      crc.update(data);
+      writeIntLe(out, (int) crc.getValue());
+      writeIntLe(out, data.length);
+      return out.toByteArray();
+    } finally {
+      releaseDeflater(deflater);
+    }
+  }
+
+  /**
+   * Decodes one or more concatenated gzip members.
+   *
+   * @throws IOException if the data is not valid gzip
+   */
+  static byte[] decode(byte[] data) throws IOException {
+    if (data.length == 0) {
+      return data;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int offset = 0;
+    do {
+      offset = decodeMember(data, offset, out, buffer);
+    } while (offset < data.length);
+    return out.toByteArray();
+  }
+
+  /**
+   * Decodes one or more concatenated gzip members as they are read. Closing the stream closes
+   * {@code in} and returns its Inflater to the pool.
+   */
+  static InputStream decodingStream(InputStream in) {
+    return new DecodingStream(in);
+  }
+
+  /**
+   * @return offset of the first byte after the member
+   */
+  private static int decodeMember(byte[] data, int offset, ByteArrayOutputStream out, byte[] buffer)
+      throws IOException {
+    int position = skipHeader(data, offset);
+    int start = out.size();
+    CRC32 crc = new CRC32();
+    Inflater inflater = obtainInflater();
+    try {
+      inflater.setInput(data, position, data.length - position);
+      while (!inflater.finished()) {
+        int count = inflater.inflate(buffer);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("truncated gzip data");
+        }
+        out.write(buffer, 0, count);
+        crc.update(buffer, 0, count);
+      }
+      position = data.length - inflater.getRemaining();
+    } catch (DataFormatException e) {
+      throw new IOException("invalid gzip data", e);
+    } finally {
+      releaseInflater(inflater);
+    }
+    if (data.length - position < TRAILER_SIZE) {
+      throw new IOException("truncated gzip trailer");
+    }
+    if (readIntLe(data, position) != (int) crc.getValue()
+        || readIntLe(data, position + 4) != out.size() - start) {
+      throw new IOException("gzip checksum mismatch");
+    }
+    return position + TRAILER_SIZE;
+  }
+
+  private static int skipHeader(byte[] data, int offset) throws IOException {
+    if (data.length - offset < HEADER_SIZE || (data[offset] & 0xff) != MAGIC_1
+        || (data[offset + 1] & 0xff) != MAGIC_2 || data[offset + 2] != METHOD_DEFLATE) {
+      throw new IOException("not in gzip format");
+    }
+    int flags = data[offset + 3] & 0xff;
+    int position = offset + HEADER_SIZE;
+    try {
+      if ((flags & FLAG_EXTRA) != 0) {
+        position += 2 + ((data[position] & 0xff) | (data[position + 1] & 0xff) << 8);
+      }
+      if ((flags & FLAG_NAME) != 0) {
+        while (data[position++] != 0) {
+          // zero terminated file name
+        }
+      }
+      if ((flags & FLAG_COMMENT) != 0) {
+        while (data[position++] != 0) {
+          // zero terminated comment
+        }
+      }
+      if ((flags & FLAG_HCRC) != 0) {
+        position += 2;
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IOException("truncated gzip header", e);
+    }
+    if (position > data.length) {
+      throw new IOException("truncated gzip header");
+    }
+    return position;
+  }
+
+  private static Deflater obtainDeflater() {
+    synchronized (DEFLATERS) {
+      Deflater deflater = DEFLATERS.poll();
+      if (deflater != null) {
+        return deflater;
+      }
+    }
+    return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+  }
+
+  private static Inflater obtainInflater() {
+    synchronized (INFLATERS) {
+      Inflater inflater = INFLATERS.poll();
+      if (inflater != null) {
+        return inflater;
+      }
+    }
+    return new Inflater(true);
+  }
+
+  private static void releaseDeflater(Deflater deflater) {
+    deflater.reset();
+    synchronized (DEFLATERS) {
+      if (DEFLATERS.size() < POOL_SIZE) {
+        DEFLATERS.push(deflater);
+        return;
+      }
+    }
+    deflater.end();
+  }
+
+  private static void releaseInflater(Inflater inflater) {
+    inflater.reset();
+    synchronized (INFLATERS) {
+      if (INFLATERS.size() < POOL_SIZE) {
+        INFLATERS.push(inflater);
+        return;
+      }
+    }
+    inflater.end();
+  }
+
+  private static final class DecodingStream extends InputStream {
+    private final InputStream in;
+    private final byte[] input = new byte[BUFFER_SIZE];
+    private final byte[] single = new byte[1];
+    private final CRC32 crc = new CRC32();
+    // set while a member is being inflated
+    private Inflater inflater;
+    private long memberSize;
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    DecodingStream(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      while (!eof) {
+        if (inflater == null && !startMember()) {
+          eof = true;
+          break;
+        }
+        int count = inflate(buffer, offset, length);
+        if (count > 0) {
+          return count;
+        }
+        endMember();
+      }
+      return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (inflater != null) {
+        releaseInflater(inflater);
+        inflater = null;
+      }
+      eof = true;
+      in.close();
+    }
+
+    /**
+     * @return false if the data ended before another member
+     */
+    private boolean startMember() throws IOException {
+      int magic = readByte();
+      if (magic == -1) {
+        return false;
+      }
+      if (magic != MAGIC_1 || readByte() != MAGIC_2 || readByte() != METHOD_DEFLATE) {
+        throw new IOException("not in gzip format");
+      }
+      int flags = readRequiredByte();
+      // modification time, extra flags and operating system
+      skip(6);
+      if ((flags & FLAG_EXTRA) != 0) {
+        skip(readRequiredByte() | readRequiredByte() << 8);
+      }
+      if ((flags & FLAG_NAME) != 0) {
+        while (readRequiredByte() != 0) {
+          // zero terminated file name
+        }
+      }
+      if ((flags & FLAG_COMMENT) != 0) {
+        while (readRequiredByte() != 0) {
+          // zero terminated comment
+        }
+      }
+      if ((flags & FLAG_HCRC) != 0) {
+        skip(2);
+      }
+      inflater = obtainInflater();
+      crc.reset();
+      memberSize = 0;
+      return true;
+    }
+
+    /**
+     * @return the number of bytes inflated, 0 once the member's deflate data is complete
+     */
+    private int inflate(byte[] buffer, int offset, int length) throws IOException {
+      try {
+        while (!inflater.finished()) {
+          if (inflater.needsInput()) {
+            if (!fill()) {
+              throw new EOFException("truncated gzip data");
+            }
+            inflater.setInput(input, position, limit - position);
+            position = limit;
+          }
+          int count = inflater.inflate(buffer, offset, length);
+          if (count > 0) {
+            crc.update(buffer, offset, count);
+            memberSize += count;
+            return count;
+          }
+          if (inflater.needsDictionary()) {
+            throw new IOException("invalid gzip data");
+          }
+        }
+        return 0;
+      } catch (DataFormatException e) {
+        throw new IOException("invalid gzip data", e);
+      }
+    }
+
+    private void endMember() throws IOException {
+      // the inflater was handed the whole buffer, give back what it did not consume
+      position = limit - inflater.getRemaining();
+      releaseInflater(inflater);
+      inflater = null;
+      if (readIntLe() != (int) crc.getValue() || readIntLe() != (int) memberSize) {
+        throw new IOException("gzip checksum mismatch");
+      }
+    }
+
+    private boolean fill() throws IOException {
+      if (position < limit) {
+        return true;
+      }
+      int count = in.read(input);
+      if (count <= 0) {
+        return false;
+      }
+      position = 0;
+      limit = count;
+      return true;
+    }
+
+    private int readByte() throws IOException {
+      return fill() ? input[position++] & 0xff : -1;
+    }
+
+    private int readRequiredByte() throws IOException {
+      int value = readByte();
+      if (value == -1) {
+        throw new EOFException("truncated gzip data");
+      }
+      return value;
+    }
+
+    private void skip(int count) throws IOException {
+      for (int i = 0; i < count; i++) {
+        readRequiredByte();
+      }
+    }
+
+    private int readIntLe() throws IOException {
+      return readRequiredByte() | readRequiredByte() << 8 | readRequiredByte() << 16
+          | readRequiredByte() << 24;
+    }
+  }
+
+  private static void writeIntLe(ByteArrayOutputStream out, int value) {
+    out.write(value);
+    out.write(value >>> 8);
+    out.write(value >>> 16);
+    out.write(value >>> 24);
+  }
+
+  private static int readIntLe(byte[] data, int position) {
+    return (data[position] & 0xff) | (data[position + 1] & 0xff) << 8
+        | (data[position + 2] & 0xff) << 16 | (data[position + 3] & 0xff) << 24;
+  }
+}
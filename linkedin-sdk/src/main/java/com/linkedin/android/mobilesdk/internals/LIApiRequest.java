@@ -0,0 +1,482 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Cache;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.ServerError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.linkedin.android.mobilesdk.ApiEvent;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiEventListener;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base Volley request for the LinkedIn REST api: carries the LinkedIn headers and json body and
+ * builds the cache entry. Subclasses turn the response body into their result type; this runs on
+ * the network dispatcher thread.
+ * Requests sent through a {@link RequestDispatcher} report their network outcome to it, and their
+ * failures go through it before they reach the caller so they can be retried. While an
+ * {@link ApiEventListener} is set, each step of the call is reported as an {@link ApiEvent}.
+ */
+public abstract class LIApiRequest<T> extends Request<T> {
+
+  private static final String PROTOCOL_CHARSET = "utf-8";
+  private static final String BODY_CONTENT_TYPE = "application/json; charset=" + PROTOCOL_CHARSET;
+  private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+  private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
+  private Map<String, String> headers;
+  private byte[] body;
+  private int decodedBodySize;
+  private final boolean cacheFirst;
+  private final long maxStaleMs;
+  private Priority priority = Priority.NORMAL;
+  private RequestDispatcher dispatcher;
+  private long maxThrottleWaitMs;
+  private final int attempt;
+  private ApiEventListener apiEventListener;
+  private RecordedApiEvent apiEvent;
+  // shared by every attempt of the call, 0 until its first attempt is reported
+  private long callId;
+  private long callStartNanos;
+  private volatile boolean networkUsed;
+  // parsedApiError is written first, so it is visible to whoever sees parsedError
+  private volatile LIApiError parsedApiError;
+  private volatile VolleyError parsedError;
+  // stored response delivered ahead of its refresh, until the call is settled
+  private volatile T intermediateResult;
+  // set once the final result or error was delivered, or the call was handed to a retry
+  private volatile boolean settled;
+  private long tokenExpiresOn = Long.MAX_VALUE;
+
+  /**
+   * @param headers    headers sent with the request
+   * @param body       json body, may be null
+   * @param cacheFirst if true, stored responses stay deliverable for maxStaleMs while being refreshed
+   * @param maxStaleMs see cacheFirst
+   */
+  protected LIApiRequest(int method, @NonNull String url, @NonNull Map<String, String> headers,
+                         @Nullable JSONObject body, boolean cacheFirst, long maxStaleMs) {
+    super(method, url, null);
+    this.headers = headers;
+    this.body = body == null ? null : encode(body.toString());
+    this.decodedBodySize = this.body == null ? 0 : this.body.length;
+    this.cacheFirst = cacheFirst;
+    this.maxStaleMs = maxStaleMs;
+    this.attempt = 1;
+  }
+
+  /**
+   * Creates the next attempt of the given request.
+   */
+  protected LIApiRequest(@NonNull LIApiRequest<T> previous) {
+    super(previous.getMethod(), previous.getOriginUrl(), null);
+    headers = previous.headers;
+    body = previous.body;
+    decodedBodySize = previous.decodedBodySize;
+    cacheFirst = previous.cacheFirst;
+    maxStaleMs = previous.maxStaleMs;
+    priority = previous.priority;
+    dispatcher = previous.dispatcher;
+    maxThrottleWaitMs = previous.maxThrottleWaitMs;
+    tokenExpiresOn = previous.tokenExpiresOn;
+    callId = previous.callId;
+    callStartNanos = previous.callStartNanos;
+    attempt = previous.attempt + 1;
+    setTag(previous.getTag());
+    setShouldCache(previous.shouldCache());
+  }
+
+  /**
+   * @return a fresh copy of this request, see {@link #LIApiRequest(LIApiRequest)}
+   */
+  protected abstract LIApiRequest<T> copy();
+
+  public void setPriority(@NonNull Priority priority) {
+    this.priority = priority;
+  }
+
+  @Override
+  public Priority getPriority() {
+    return priority;
+  }
+
+  void setDispatcher(@NonNull RequestDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  /**
+   * @param maxThrottleWaitMs how long the call may be held back by the rate limit; 0 rejects it
+   *                          as soon as it would have to wait
+   */
+  public void setMaxThrottleWaitMs(long maxThrottleWaitMs) {
+    this.maxThrottleWaitMs = maxThrottleWaitMs;
+  }
+
+  long getMaxThrottleWaitMs() {
+    return maxThrottleWaitMs;
+  }
+
+  /**
+   * Gzip-compresses the body, once, if it is at least minBodySize bytes long.
+   */
+  public void setGzipThreshold(int minBodySize) {
+    if (body == null || body.length < minBodySize || GzipCodec.isGzip(headers)) {
+      return;
+    }
+    body = GzipCodec.encode(body);
+    headers = new HashMap<>(headers);
+    headers.put(HEADER_CONTENT_ENCODING, GzipCodec.ENCODING);
+  }
+
+  /**
+   * @param tokenExpiresOn expiry time of the access token the request is authorized with
+   */
+  public void setTokenExpiresOn(long tokenExpiresOn) {
+    this.tokenExpiresOn = tokenExpiresOn;
+  }
+
+  /**
+   * @param delayMs time before the request is sent
+   * @return true if the access token expires before the request could time out, so it would
+   * likely come back as a 401
+   */
+  boolean outlivesToken(long delayMs) {
+    return System.currentTimeMillis() + delayMs + getTimeoutMs() >= tokenExpiresOn;
+  }
+
+  /**
+   * @return 1 for the first attempt, incremented with every retry
+   */
+  public int getAttempt() {
+    return attempt;
+  }
+
+  /**
+   * Starts the event of this attempt. Retries keep the call id and start time of the first attempt.
+   */
+  void startEvents(@NonNull ApiEventListener listener, @NonNull AtomicLong callIds) {
+    if (callId == 0) {
+      callId = callIds.incrementAndGet();
+      callStartNanos = SystemClock.elapsedRealtimeNanos();
+    }
+    byte[] bodyBytes = getBody();
+    apiEvent = new RecordedApiEvent(callId, getMethod(), getOriginUrl(), RetryEngine.endpointKey(getOriginUrl()), attempt,
+        callStartNanos, bodyBytes == null ? 0 : bodyBytes.length, decodedBodySize);
+    apiEventListener = listener;
+  }
+
+  void emit(ApiEvent.Type type) {
+    if (apiEvent != null) {
+      apiEvent.record(type, SystemClock.elapsedRealtimeNanos());
+      apiEventListener.onApiEvent(apiEvent);
+    }
+  }
+
+  void onNetworkStart() {
+    networkUsed = true;
+    emit(ApiEvent.Type.DISPATCHED);
+  }
+
+  /**
+   * Called by transports on the network thread once the response headers arrived.
+   */
+  public void onFirstByte() {
+    emit(ApiEvent.Type.FIRST_BYTE);
+  }
+
+  /**
+   * @param wireResponse the response as read from the network
+   * @return the response with a gzip encoded body decoded
+   * @throws VolleyError if the body could not be decoded; the failure is already reported
+   */
+  NetworkResponse onNetworkSuccess(NetworkResponse wireResponse) throws VolleyError {
+    NetworkResponse response;
+    try {
+      response = decode(wireResponse);
+    } catch (IOException e) {
+      throw onNetworkFailure(new ParseError(e));
+    }
+    if (apiEvent != null) {
+      apiEvent.setResponse(response.statusCode, size(wireResponse), size(response));
+      emit(ApiEvent.Type.BODY_READ);
+    }
+    if (dispatcher != null) {
+      dispatcher.onNetworkSuccess(this);
+    }
+    return response;
+  }
+
+  /**
+   * @return the error with a gzip encoded error body decoded
+   */
+  VolleyError onNetworkFailure(VolleyError wireError) {
+    VolleyError error = decode(wireError);
+    if (apiEvent != null) {
+      if (error.networkResponse != null) {
+        apiEvent.setResponse(error.networkResponse.statusCode, size(wireError.networkResponse),
+            size(error.networkResponse));
+      }
+      emit(ApiEvent.Type.BODY_READ);
+    }
+    if (dispatcher != null) {
+      dispatcher.onNetworkFailure(this, error);
+    }
+    return error;
+  }
+
+  private static NetworkResponse decode(NetworkResponse response) throws IOException {
+    // a 304 carries the stored body, which was decoded before it was cached
+    if (response.notModified || response.data == null || !GzipCodec.isGzip(response.headers)) {
+      return response;
+    }
+    Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    headers.putAll(response.headers);
+    headers.remove(HEADER_CONTENT_ENCODING);
+    headers.remove(HEADER_CONTENT_LENGTH);
+    return new NetworkResponse(response.statusCode, GzipCodec.decode(response.data), headers,
+        response.notModified, response.networkTimeMs);
+  }
+
+  private static VolleyError decode(VolleyError error) {
+    if (error.networkResponse == null || error instanceof NoConnectionError) {
+      return error;
+    }
+    NetworkResponse response;
+    try {
+      response = decode(error.networkResponse);
+    } catch (IOException e) {
+      return error;
+    }
+    if (response == error.networkResponse) {
+      return error;
+    }
+    // keep the error type, retries and error mapping depend on it
+    if (error instanceof AuthFailureError) {
+      return new AuthFailureError(response);
+    } else if (error instanceof ServerError) {
+      return new ServerError(response);
+    } else if (error instanceof NetworkError) {
+      return new NetworkError(response);
+    }
+    return error;
+  }
+
+  private static int size(NetworkResponse response) {
+    return response == null || response.data == null ? 0 : response.data.length;
+  }
+
+  /**
+   * Converts the response into the result delivered to the caller.
+   */
+  protected abstract T parseResult(NetworkResponse response) throws IOException;
+
+  @Override
+  protected final Response<T> parseNetworkResponse(NetworkResponse response) {
+    try {
+      Response<T> result = Response.success(parseResult(response), buildCacheEntry(response));
+      if (apiEvent != null) {
+        if (!networkUsed) {
+          apiEvent.setSource(ApiEvent.Source.CACHE);
+          apiEvent.setResponse(response.statusCode, size(response), size(response));
+        } else {
+          apiEvent.setSource(response.notModified ? ApiEvent.Source.NOT_MODIFIED : ApiEvent.Source.NETWORK);
+        }
+        emit(ApiEvent.Type.PARSED);
+      }
+      return result;
+    } catch (IOException | IllegalStateException | NumberFormatException e) {
+      return Response.error(new ParseError(e));
+    }
+  }
+
+  @Override
+  protected final void deliverResponse(T response) {
+    if (isIntermediate()) {
+      intermediateResult = response;
+    } else {
+      settled = true;
+    }
+    deliverResult(response);
+    if (apiEvent != null) {
+      apiEvent.setDelivery(true, getCallerCount());
+      emit(ApiEvent.Type.DELIVERED);
+    }
+  }
+
+  /**
+   * Called on the network thread; the error body is parsed here so the delivery thread receives
+   * a ready LIApiError.
+   */
+  @Override
+  protected final VolleyError parseNetworkError(VolleyError volleyError) {
+    parsedApiError = toApiError(volleyError);
+    parsedError = volleyError;
+    return volleyError;
+  }
+
+  /**
+   * @return true while a stored response is delivered ahead of its refresh in CACHE_FIRST mode; the
+   * refresh delivers the final result or error afterwards
+   */
+  protected boolean isIntermediate() {
+    // the cache dispatcher attaches the entry to refresh only for that case, and sends the request
+    // to the network only after the delivery
+    return !networkUsed && getCacheEntry() != null;
+  }
+
+  /**
+   * Called once the queue is done with the request. Volley drops a 304 refresh without delivering
+   * anything once the stored response was delivered, which leaves that response as the final one.
+   *
+   * @param deliveryExecutor executor the results are delivered on
+   */
+  void onFinished(@NonNull Executor deliveryExecutor) {
+    final T result = intermediateResult;
+    if (result == null || settled || isCanceled()) {
+      return;
+    }
+    settled = true;
+    deliveryExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        onRefreshUnchanged(result);
+      }
+    });
+  }
+
+  /**
+   * Called on the delivery executor when the refresh of an intermediate result came back unchanged.
+   */
+  protected void onRefreshUnchanged(T result) {
+  }
+
+  @Override
+  public final void deliverError(VolleyError error) {
+    if (isRetryable(error) && dispatcher != null && dispatcher.onError(this, error)) {
+      settled = true;
+      emit(ApiEvent.Type.ATTEMPT_FAILED);
+      return;
+    }
+    // errors raised outside the network dispatcher were not parsed ahead
+    fail(error == parsedError ? parsedApiError : toApiError(error));
+  }
+
+  /**
+   * @return false for the errors the SDK raises itself, which a retry cannot fix
+   */
+  static boolean isRetryable(VolleyError error) {
+    return !(error instanceof TokenExpiredError || error instanceof ResponseTooLargeError);
+  }
+
+  static LIApiError toApiError(VolleyError error) {
+    if (error instanceof TokenExpiredError) {
+      return new LIApiError(LIApiError.ErrorType.accessTokenIsNotSet, error.getMessage(), null);
+    }
+    if (error instanceof ResponseTooLargeError) {
+      return new LIApiError(LIApiError.ErrorType.responseTooLarge, error.getMessage(), null);
+    }
+    return LIApiError.buildLiApiError(error);
+  }
+
+  /**
+   * Delivers an error without sending the request or after its last attempt.
+   */
+  void fail(LIApiError error) {
+    settled = true;
+    deliverApiError(error);
+    if (apiEvent != null) {
+      apiEvent.setDelivery(false, getCallerCount());
+      emit(ApiEvent.Type.DELIVERED);
+    }
+  }
+
+  /**
+   * Delivers the result of the call, on the delivery executor, the main thread by default.
+   */
+  protected abstract void deliverResult(T result);
+
+  /**
+   * Delivers the final error of the call, after any retries.
+   */
+  protected abstract void deliverApiError(LIApiError error);
+
+  /**
+   * @return number of callers the result is delivered to
+   */
+  protected int getCallerCount() {
+    return 1;
+  }
+
+  /**
+   * @return the cache entry, or null if the response must not be stored (no-cache, no-store)
+   */
+  private Cache.Entry buildCacheEntry(NetworkResponse response) {
+    Cache.Entry entry = HttpHeaderParser.parseCacheHeaders(response);
+    if (entry != null && cacheFirst) {
+      // keep serving the stored copy while the soft ttl forces a background refresh
+      entry.ttl = Math.max(entry.ttl, System.currentTimeMillis() + maxStaleMs);
+    }
+    return entry;
+  }
+
+  @Override
+  public Map<String, String> getHeaders() throws AuthFailureError {
+    return headers;
+  }
+
+  @Override
+  public String getBodyContentType() {
+    return BODY_CONTENT_TYPE;
+  }
+
+  /**
+   * The body is encoded once and the same bytes are sent by every attempt.
+   */
+  @Override
+  public byte[] getBody() {
+    return body;
+  }
+
+  private static byte[] encode(String body) {
+    try {
+      return body.getBytes(PROTOCOL_CHARSET);
+    } catch (UnsupportedEncodingException e) {
+      return null;
+    }
+  }
+}
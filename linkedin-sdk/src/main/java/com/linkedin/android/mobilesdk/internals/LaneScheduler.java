@@ -0,0 +1,153 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Admits requests into the Volley queue by priority lane.
+ * {@link Request.Priority#IMMEDIATE} and {@link Request.Priority#HIGH} requests are added right
+ * away. NORMAL and LOW requests share a limited number of slots, so the remaining dispatcher
+ * threads stay free for interactive work; the rest wait in their lane. A LOW request that waited
+ * longer than the aging delay is admitted before NORMAL ones, so it cannot starve.
+ */
+class LaneScheduler {
+
+  private final RequestQueue requestQueue;
+  private final int backgroundSlots;
+  private final long agingMs;
+  private final ArrayDeque<Waiting> normalLane = new ArrayDeque<>();
+  private final ArrayDeque<Waiting> lowLane = new ArrayDeque<>();
+  private final Set<Request<?>> admittedBackground = Collections.newSetFromMap(new IdentityHashMap<Request<?>, Boolean>());
+
+  /**
+   * @param backgroundSlots maximum number of NORMAL and LOW requests admitted at the same time
+   * @param agingMs         time after which a waiting LOW request is treated like a NORMAL one
+   */
+  LaneScheduler(RequestQueue requestQueue, int backgroundSlots, long agingMs) {
+    this.requestQueue = requestQueue;
+    this.backgroundSlots = backgroundSlots;
+    this.agingMs = agingMs;
+  }
+
+  void add(@NonNull Request<?> request) {
+    if (isInteractive(request)) {
+      requestQueue.add(request);
+      return;
+    }
+    synchronized (this) {
+      if (admittedBackground.size() >= backgroundSlots) {
+        Waiting waiting = new Waiting(request, SystemClock.elapsedRealtime());
+        if (request.getPriority() == Request.Priority.LOW) {
+          lowLane.add(waiting);
+        } else {
+          normalLane.add(waiting);
+        }
+        return;
+      }
+      admittedBackground.add(request);
+    }
+    requestQueue.add(request);
+  }
+
+  /**
+   * Releases the slot of a finished request and admits the next waiting one.
+   */
+  void onRequestFinished(@NonNull Request<?> request) {
+    Request<?> next;
+    synchronized (this) {
+      if (!admittedBackground.remove(request)) {
+        return;
+      }
+      next = pollNext();
+      if (next != null) {
+        admittedBackground.add(next);
+      }
+    }
+    if (next != null) {
+      requestQueue.add(next);
+    }
+  }
+
+  /**
+   * Removes the waiting requests with the given tag; requests already admitted are cancelled by
+   * the Volley queue.
+   */
+  void cancelAll(@NonNull Object tag) {
+    List<Request<?>> cancelled = new ArrayList<>();
+    synchronized (this) {
+      removeTagged(normalLane, tag, cancelled);
+      removeTagged(lowLane, tag, cancelled);
+    }
+    for (Request<?> request : cancelled) {
+      request.cancel();
+    }
+  }
+
+  synchronized int getWaitingCount() {
+    return normalLane.size() + lowLane.size();
+  }
+
+  private Request<?> pollNext() {
+    Waiting oldestLow = lowLane.peek();
+    if (oldestLow != null && SystemClock.elapsedRealtime() - oldestLow.enqueuedAt >= agingMs) {
+      return lowLane.poll().request;
+    }
+    Waiting waiting = normalLane.poll();
+    if (waiting == null) {
+      waiting = lowLane.poll();
+    }
+    return waiting == null ? null : waiting.request;
+  }
+
+  private static void removeTagged(ArrayDeque<Waiting> lane, Object tag, List<Request<?>> removed) {
+    Iterator<Waiting> iterator = lane.iterator();
+    while (iterator.hasNext()) {
+      Request<?> request = iterator.next().request;
+      if (request.getTag() == tag) {
+        iterator.remove();
+        removed.add(request);
+      }
+    }
+  }
+
+  private static boolean isInteractive(Request<?> request) {
+    Request.Priority priority = request.getPriority();
+    return priority == Request.Priority.IMMEDIATE || priority == Request.Priority.HIGH;
+  }
+
+  private static class Waiting {
+    private final Request<?> request;
+    private final long enqueuedAt;
+
+    Waiting(Request<?> request, long enqueuedAt) {
+      this.request = request;
+      this.enqueuedAt = enqueuedAt;
+    }
+  }
+}
@@ -0,0 +1,372 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the outbox.
+ * <p>
+ * Every record is framed as [int length][int crc32][payload], payload being either
+ * ADD (seq, idempotency key, method, url, body) or DONE (seq). A record torn by process death fails
+ * its length or checksum check and is cut off when the journal is opened.
+ * <p>
+ * Only the seqs of completed entries are kept in memory; pending entries are streamed from the file
+ * in small windows by {@link #readPending(int)}. Once most records are obsolete the journal is
+ * rewritten with only the pending entries by {@link #compactIfNeeded()}.
+ * <p>
+ * Not thread safe, the outbox uses it from a single thread.
+ */
+public class OutboxJournal {
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final byte TYPE_ADD = 1;
+  private static final byte TYPE_DONE = 2;
+  private static final int HEADER_SIZE = 8;
+  private static final int MIN_RECORD_SIZE = 9;
+  private static final int MAX_RECORD_SIZE = 4 * 1024 * 1024;
+  private static final int COMPACT_MIN_DONE = 128;
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * A queued mutation.
+   */
+  public static class Entry {
+    public final long seq;
+    public final String idempotencyKey;
+    public final int method;
+    public final String url;
+    public final String body;
+
+    Entry(long seq, String idempotencyKey, int method, String url, String body) {
+      this.seq = seq;
+      this.idempotencyKey = idempotencyKey;
+      this.method = method;
+      this.url = url;
+      this.body = body;
+    }
+  }
+
+  private final File file;
+  private final Set<Long> doneSeqs = new HashSet<>();
+  private FileOutputStream fileOut;
+  private DataOutputStream out;
+  private long nextSeq = 1;
+  private long lastReadSeq;
+  private long readOffset;
+  private int pendingCount;
+  private boolean dirty;
+
+  public OutboxJournal(@NonNull File file) {
+    this.file = file;
+  }
+
+  /**
+   * Scans the journal, cuts off a torn tail and opens it for appending.
+   */
+  public void open() throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists() && !parent.mkdirs()) {
+      throw new IOException("unable to create " + parent);
+    }
+    long validLength = 0;
+    int addCount = 0;
+    if (file.exists()) {
+      RecordReader reader = new RecordReader(0);
+      try {
+        Record record;
+        while ((record = reader.next()) != null) {
+          if (record.type == TYPE_ADD) {
+            addCount++;
+          } else {
+            doneSeqs.add(record.seq);
+          }
+          nextSeq = Math.max(nextSeq, record.seq + 1);
+          validLength = reader.offset;
+        }
+      } finally {
+        reader.close();
+      }
+      truncate(validLength);
+    }
+    pendingCount = addCount - doneSeqs.size();
+    openWriter(true);
+  }
+
+  public void close() throws IOException {
+    if (out != null) {
+      sync();
+      out.close();
+      out = null;
+    }
+  }
+
+  /**
+   * Appends an entry. It is only durable after the next {@link #sync()}.
+   */
+  public Entry append(@NonNull String idempotencyKey, int method, @NonNull String url, @Nullable String body)
+      throws IOException {
+    Entry entry = new Entry(nextSeq++, idempotencyKey, method, url, body);
+    writeRecord(encodeAdd(entry));
+    pendingCount++;
+    return entry;
+  }
+
+  /**
+   * Records the completion of an entry. It is only durable after the next {@link #sync()}.
+   */
+  public void markDone(long seq) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(MIN_RECORD_SIZE);
+    DataOutputStream payload = new DataOutputStream(bytes);
+    payload.writeByte(TYPE_DONE);
+    payload.writeLong(seq);
+    writeRecord(bytes.toByteArray());
+    doneSeqs.add(seq);
+    pendingCount--;
+  }
+
+  /**
+   * Flushes and fsyncs everything appended since the last call, so a batch of appends costs a
+   * single fsync.
+   */
+  public void sync() throws IOException {
+    if (dirty) {
+      out.flush();
+      fileOut.getFD().sync();
+      dirty = false;
+    }
+  }
+
+  /**
+   * @return up to max pending entries following the ones returned by the previous calls, in the
+   * order they were appended
+   */
+  public List<Entry> readPending(int max) throws IOException {
+    out.flush();
+    List<Entry> entries = new ArrayList<>(max);
+    RecordReader reader = new RecordReader(readOffset);
+    try {
+      Record record;
+      while (entries.size() < max && (record = reader.next()) != null) {
+        readOffset = reader.offset;
+        if (record.type == TYPE_ADD && record.seq > lastReadSeq && !doneSeqs.contains(record.seq)) {
+          entries.add(record.entry);
+          lastReadSeq = record.seq;
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return entries;
+  }
+
+  public int getPendingCount() {
+    return pendingCount;
+  }
+
+  /**
+   * Rewrites the journal with only its pending entries once completed ones make up most of it.
+   */
+  public void compactIfNeeded() throws IOException {
+    if (doneSeqs.size() < COMPACT_MIN_DONE || doneSeqs.size() < pendingCount) {
+      return;
+    }
+    sync();
+    out.close();
+    File compacted = new File(file.getPath() + ".tmp");
+    boolean replaced = false;
+    try {
+      writeCompacted(compacted);
+      if (!compacted.renameTo(file)) {
+        throw new IOException("unable to replace " + file);
+      }
+      replaced = true;
+      doneSeqs.clear();
+      readOffset = 0;
+    } finally {
+      // keep appending to whichever journal is current
+      if (!replaced) {
+        compacted.delete();
+      }
+      openWriter(true);
+    }
+  }
+
+  private void writeCompacted(File compacted) throws IOException {
+    FileOutputStream compactedOut = new FileOutputStream(compacted);
+    DataOutputStream writer = new DataOutputStream(new BufferedOutputStream(compactedOut, BUFFER_SIZE));
+    try {
+      RecordReader reader = new RecordReader(0);
+      try {
+        Record record;
+        while ((record = reader.next()) != null) {
+          if (record.type == TYPE_ADD && !doneSeqs.contains(record.seq)) {
+            writeFrame(writer, encodeAdd(record.entry));
+          }
+        }
+      } finally {
+        reader.close();
+      }
+      writer.flush();
+      compactedOut.getFD().sync();
+    } finally {
+      writer.close();
+    }
+  }
+
+  private void openWriter(boolean append) throws IOException {
+    fileOut = new FileOutputStream(file, append);
+    out = new DataOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE));
+  }
+
+  private void truncate(long length) throws IOException {
+    if (file.length() == length) {
+      return;
+    }
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.setLength(length);
+    } finally {
+      raf.close();
+    }
+  }
+
+  private void writeRecord(byte[] payload) throws IOException {
+    writeFrame(out, payload);
+    dirty = true;
+  }
+
+  private static void writeFrame(DataOutputStream stream, byte[] payload) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    stream.writeInt(payload.length);
+    stream.writeInt((int) crc.getValue());
+    stream.write(payload);
+  }
+
+  private static byte[] encodeAdd(Entry entry) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entry.url.length());
+    DataOutputStream payload = new DataOutputStream(bytes);
+    payload.writeByte(TYPE_ADD);
+    payload.writeLong(entry.seq);
+    writeString(payload, entry.idempotencyKey);
+    payload.writeInt(entry.method);
+    writeString(payload, entry.url);
+    writeString(payload, entry.body);
+    return bytes.toByteArray();
+  }
+
+  private static void writeString(DataOutputStream stream, String value) throws IOException {
+    if (value == null) {
+      stream.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(UTF_8);
+    stream.writeInt(bytes.length);
+    stream.write(bytes);
+  }
+
+  private static String readString(DataInputStream stream) throws IOException {
+    int length = stream.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    stream.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static class Record {
+    byte type;
+    long seq;
+    Entry entry;
+  }
+
+  /**
+   * Streams the records of the journal from a given offset, stopping at the first torn one.
+   */
+  private class RecordReader {
+    private final DataInputStream in;
+    private long offset;
+
+    RecordReader(long offset) throws IOException {
+      FileInputStream fileIn = new FileInputStream(file);
+      fileIn.getChannel().position(offset);
+      in = new DataInputStream(new BufferedInputStream(fileIn, BUFFER_SIZE));
+      this.offset = offset;
+    }
+
+    Record next() throws IOException {
+      byte[] payload;
+      try {
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length < MIN_RECORD_SIZE || length > MAX_RECORD_SIZE) {
+          return null;
+        }
+        payload = new byte[length];
+        in.readFully(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+          return null;
+        }
+      } catch (EOFException e) {
+        return null;
+      }
+      offset += HEADER_SIZE + payload.length;
+      DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+      Record record = new Record();
+      record.type = data.readByte();
+      if (record.type != TYPE_ADD && record.type != TYPE_DONE) {
+        return null;
+      }
+      record.seq = data.readLong();
+      if (record.type == TYPE_ADD) {
+        String key = readString(data);
+        int method = data.readInt();
+        String url = readString(data);
+        String body = readString(data);
+        record.entry = new Entry(record.seq, key, method, url, body);
+      }
+      return record;
+    }
+
+    void close() throws IOException {
+      in.close();
+    }
+  }
+}
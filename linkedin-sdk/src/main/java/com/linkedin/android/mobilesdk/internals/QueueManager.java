@@ -16,33 +16,148 @@
 package com.linkedin.android.mobilesdk.internals;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 
+import com.android.volley.ExecutorDelivery;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
 import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.Volley;
+import com.android.volley.ResponseDelivery;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.ClearCacheRequest;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.linkedin.android.mobilesdk.QueueConfig;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class QueueManager {
 
+  private static final String CACHE_DIR = "li_sdk_response_cache";
+
   private static QueueManager queueManager;
   private final RequestQueue requestQueue;
+  private final DispatcherNetwork network;
+  private final StatsByteArrayPool byteArrayPool;
+  private final LaneScheduler laneScheduler;
+  private final AtomicInteger outstanding = new AtomicInteger();
+  private final boolean deliversOnMainThread;
 
-  private QueueManager(Context context) {
+  private QueueManager(Context context, QueueConfig config) {
     Context ctx = context.getApplicationContext();
-    requestQueue = Volley.newRequestQueue(ctx);
+    File cacheDir = config.getCacheDirectory() != null ? config.getCacheDirectory() : new File(ctx.getCacheDir(), CACHE_DIR);
+    byteArrayPool = new StatsByteArrayPool(config.getBytePoolSizeBytes());
+    network = new DispatcherNetwork(config.getTransport().createNetwork(ctx, byteArrayPool),
+        config.getThreadNamePrefix(), config.getThreadPriority());
+    deliversOnMainThread = config.getDeliveryExecutor() == null;
+    final Executor deliveryExecutor = !deliversOnMainThread ? config.getDeliveryExecutor() : new Executor() {
+      private final Handler handler = new Handler(Looper.getMainLooper());
+
+      @Override
+      public void execute(@NonNull Runnable command) {
+        handler.post(command);
+      }
+    };
+    ResponseDelivery delivery = new ExecutorDelivery(deliveryExecutor);
+    requestQueue = new RequestQueue(new DiskBasedCache(cacheDir, config.getCacheSizeBytes()), network,
+        config.getNetworkThreadCount(), delivery) {
+      @Override
+      public <T> Request<T> add(Request<T> request) {
+        outstanding.incrementAndGet();
+        return super.add(request);
+      }
+    };
+    laneScheduler = new LaneScheduler(requestQueue, config.getNetworkThreadCount() - config.getReservedThreadCount(),
+        config.getLowPriorityAgingMs());
+    requestQueue.addRequestFinishedListener(new RequestQueue.RequestFinishedListener<Object>() {
+      @Override
+      public void onRequestFinished(Request<Object> request) {
+        outstanding.decrementAndGet();
+        laneScheduler.onRequestFinished(request);
+        if (request instanceof LIApiRequest) {
+          ((LIApiRequest<?>) request).onFinished(deliveryExecutor);
+        }
+      }
+    });
+    requestQueue.start();
+  }
+
+  /**
+   * Executes the request on the calling thread, bypassing the queue and the response cache.
+   */
+  NetworkResponse execute(Request<?> request) throws VolleyError {
+    return network.execute(request);
   }
 
   public static void initQueueManager(@NonNull Context ctx) {
     getInstance(ctx);
   }
 
+  /**
+   * Creates the request queue with the given configuration. The configuration is ignored if the
+   * queue already exists.
+   */
+  public static synchronized void initQueueManager(@NonNull Context ctx, @NonNull QueueConfig config) {
+    if (queueManager == null) {
+      queueManager = new QueueManager(ctx, config);
+    }
+  }
+
   public static synchronized QueueManager getInstance(Context context) {
     if (queueManager == null) {
-      queueManager = new QueueManager(context);
+      queueManager = new QueueManager(context, new QueueConfig.Builder().build());
     }
     return queueManager;
   }
 
+  /**
+   * @return true if responses are delivered on the main thread, false if a delivery executor was
+   * configured
+   */
+  public boolean deliversOnMainThread() {
+    return deliversOnMainThread;
+  }
+
   public RequestQueue getRequestQueue() {
     return requestQueue;
   }
+
+  /**
+   * Adds a request through its priority lane, see {@link QueueConfig.Builder#setReservedThreadCount(int)}.
+   */
+  public void add(@NonNull Request<?> request) {
+    laneScheduler.add(request);
+  }
+
+  /**
+   * Cancels every request with the given tag, whether it is waiting in its lane or already queued.
+   */
+  public void cancelAll(@NonNull Object tag) {
+    laneScheduler.cancelAll(tag);
+    requestQueue.cancelAll(tag);
+  }
+
+  /**
+   * @return current queue depth and byte pool efficiency
+   */
+  public QueueStats getStats() {
+    int inFlight = network.getInFlightCount();
+    int pending = Math.max(0, outstanding.get() - inFlight) + laneScheduler.getWaitingCount();
+    return new QueueStats(pending, inFlight,
+        byteArrayPool.getHits(), byteArrayPool.getMisses());
+  }
+
+  /**
+   * Drops every stored response. The cache is cleared on the cache thread so this is safe to call
+   * from the main thread. Does nothing if the queue has not been created yet.
+   */
+  public static synchronized void clearResponseCache() {
+    if (queueManager != null) {
+      RequestQueue queue = queueManager.requestQueue;
+      queue.add(new ClearCacheRequest(queue.getCache(), null));
+    }
+  }
 }
@@ -0,0 +1,70 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+/**
+ * Snapshot of the SDK request queue, taken with {@link QueueManager#getStats()}.
+ */
+public class QueueStats {
+
+  private final int pendingCount;
+  private final int inFlightCount;
+  private final long poolHits;
+  private final long poolMisses;
+
+  QueueStats(int pendingCount, int inFlightCount, long poolHits, long poolMisses) {
+    this.pendingCount = pendingCount;
+    this.inFlightCount = inFlightCount;
+    this.poolHits = poolHits;
+    this.poolMisses = poolMisses;
+  }
+
+  /**
+   * @return requests added to the queue that are not executing on a network thread yet
+   */
+  public int getPendingCount() {
+    return pendingCount;
+  }
+
+  /**
+   * @return requests currently executing on a network thread
+   */
+  public int getInFlightCount() {
+    return inFlightCount;
+  }
+
+  public long getPoolHits() {
+    return poolHits;
+  }
+
+  public long getPoolMisses() {
+    return poolMisses;
+  }
+
+  /**
+   * @return share of response buffer requests served from the byte pool, 0 if none were made
+   */
+  public double getPoolHitRate() {
+    long total = poolHits + poolMisses;
+    return total == 0 ? 0d : (double) poolHits / total;
+  }
+
+  @Override
+  public String toString() {
+    return "QueueStats{pending=" + pendingCount + ", inFlight=" + inFlightCount
+        + ", poolHitRate=" + getPoolHitRate() + "}";
+  }
+}
@@ -0,0 +1,97 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+
+import com.linkedin.android.mobilesdk.RateLimitPolicy;
+
+/**
+ * Token bucket admitting calls according to a {@link RateLimitPolicy}.
+ * Slots are reserved ahead of time: a call that has to wait takes the next free slot, so queued
+ * calls are spread out instead of all being released at once.
+ * Throttling responses pause all calls until their Retry-After time, even without a policy.
+ */
+class RateLimiter {
+
+  private static final long DEFAULT_THROTTLE_PAUSE_MS = 1000;
+  private static final double MIN_RATE_FRACTION = 1.0 / 16;
+  private static final double RECOVERY_FRACTION = 1.0 / 10;
+
+  private RateLimitPolicy policy;
+  private double tokens;
+  private double ratePerMs;
+  private long lastRefill;
+  private long blockedUntil;
+
+  synchronized void setPolicy(@Nullable RateLimitPolicy policy) {
+    this.policy = policy;
+    if (policy != null) {
+      tokens = policy.getBurst();
+      ratePerMs = policy.getRequestsPerSecond() / 1000;
+      lastRefill = SystemClock.elapsedRealtime();
+    }
+  }
+
+  /**
+   * Reserves a slot for one call.
+   *
+   * @param maxWaitMs longest acceptable wait for the slot
+   * @return the time to wait before sending the call, or -1 if that exceeds maxWaitMs; nothing is
+   * reserved in that case
+   */
+  synchronized long tryAcquire(long maxWaitMs) {
+    long now = SystemClock.elapsedRealtime();
+    long wait = Math.max(0, blockedUntil - now);
+    if (policy != null) {
+      tokens = Math.min(policy.getBurst(), tokens + (now - lastRefill) * ratePerMs);
+      lastRefill = now;
+      if (tokens < 1) {
+        wait = Math.max(wait, (long) Math.ceil((1 - tokens) / ratePerMs));
+      }
+    }
+    if (wait > maxWaitMs) {
+      return -1;
+    }
+    if (policy != null) {
+      tokens -= 1;
+    }
+    return wait;
+  }
+
+  /**
+   * Called for a 429 response or any response carrying Retry-After.
+   *
+   * @param retryAfterMs delay asked for by the server, or -1 if it did not say
+   */
+  synchronized void onThrottled(long retryAfterMs) {
+    long now = SystemClock.elapsedRealtime();
+    blockedUntil = Math.max(blockedUntil, now + (retryAfterMs >= 0 ? retryAfterMs : DEFAULT_THROTTLE_PAUSE_MS));
+    if (policy != null) {
+      double configuredRate = policy.getRequestsPerSecond() / 1000;
+      ratePerMs = Math.max(configuredRate * MIN_RATE_FRACTION, ratePerMs / 2);
+      tokens = Math.min(tokens, 0);
+    }
+  }
+
+  synchronized void onSuccess() {
+    if (policy != null) {
+      double configuredRate = policy.getRequestsPerSecond() / 1000;
+      ratePerMs = Math.min(configuredRate, ratePerMs + configuredRate * RECOVERY_FRACTION);
+    }
+  }
+}
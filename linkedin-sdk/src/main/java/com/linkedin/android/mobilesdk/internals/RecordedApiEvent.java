@@ -0,0 +1,180 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import com.linkedin.android.mobilesdk.ApiEvent;
+
+/**
+ * The {@link ApiEvent} of an attempt, as updated by its {@link LIApiRequest}.
+ */
+final class RecordedApiEvent implements ApiEvent {
+
+  private static final int TYPE_COUNT = Type.values().length;
+
+  private final long callId;
+  private final int method;
+  private final String url;
+  private final String endpoint;
+  private final int attempt;
+  private final long callStartNanos;
+  private final long bytesSent;
+  private final long decodedBytesSent;
+  private final long[] timestamps = new long[TYPE_COUNT];
+  private volatile Type type;
+  private volatile int statusCode = -1;
+  private volatile long bytesReceived;
+  private volatile long decodedBytesReceived;
+  private volatile Source source = Source.NETWORK;
+  private volatile int callerCount = 1;
+  private volatile boolean success;
+
+  RecordedApiEvent(long callId, int method, String url, String endpoint, int attempt, long callStartNanos,
+                   long bytesSent, long decodedBytesSent) {
+    this.callId = callId;
+    this.method = method;
+    this.url = url;
+    this.endpoint = endpoint;
+    this.attempt = attempt;
+    this.callStartNanos = callStartNanos;
+    this.bytesSent = bytesSent;
+    this.decodedBytesSent = decodedBytesSent;
+  }
+
+  @Override
+  public long getCallId() {
+    return callId;
+  }
+
+  @Override
+  public int getMethod() {
+    return method;
+  }
+
+  @Override
+  public String getUrl() {
+    return url;
+  }
+
+  @Override
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  @Override
+  public int getAttempt() {
+    return attempt;
+  }
+
+  @Override
+  public Type getType() {
+    return type;
+  }
+
+  @Override
+  public long getTimestampNanos(Type type) {
+    synchronized (timestamps) {
+      return timestamps[type.ordinal()];
+    }
+  }
+
+  @Override
+  public long getCallStartNanos() {
+    return callStartNanos;
+  }
+
+  @Override
+  public long getCallElapsedNanos() {
+    long delivered = getTimestampNanos(Type.DELIVERED);
+    return delivered == 0 ? -1 : delivered - callStartNanos;
+  }
+
+  @Override
+  public long getElapsedNanos(Type from, Type to) {
+    synchronized (timestamps) {
+      long start = timestamps[from.ordinal()];
+      long end = timestamps[to.ordinal()];
+      return start == 0 || end == 0 ? -1 : end - start;
+    }
+  }
+
+  @Override
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  @Override
+  public long getBytesSent() {
+    return bytesSent;
+  }
+
+  @Override
+  public long getDecodedBytesSent() {
+    return decodedBytesSent;
+  }
+
+  @Override
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  @Override
+  public long getDecodedBytesReceived() {
+    return decodedBytesReceived;
+  }
+
+  @Override
+  public Source getSource() {
+    return source;
+  }
+
+  @Override
+  public int getCallerCount() {
+    return callerCount;
+  }
+
+  @Override
+  public boolean isSuccess() {
+    return success;
+  }
+
+  void record(Type type, long timestampNanos) {
+    synchronized (timestamps) {
+      timestamps[type.ordinal()] = timestampNanos;
+    }
+    this.type = type;
+  }
+
+  void setResponse(int statusCode, long bytesReceived, long decodedBytesReceived) {
+    this.statusCode = statusCode;
+    this.bytesReceived = bytesReceived;
+    this.decodedBytesReceived = decodedBytesReceived;
+  }
+
+  void setSource(Source source) {
+    this.source = source;
+  }
+
+  void setDelivery(boolean success, int callerCount) {
+    this.success = success;
+    this.callerCount = callerCount;
+  }
+
+  @Override
+  public String toString() {
+    return "ApiEvent{call=" + callId + ", attempt=" + attempt + ", type=" + type + ", endpoint=" + endpoint + ", status=" + statusCode
+        + ", bytesReceived=" + bytesReceived + "/" + decodedBytesReceived + ", source=" + source + "}";
+  }
+}
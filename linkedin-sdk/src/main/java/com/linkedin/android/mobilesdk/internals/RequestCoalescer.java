@@ -0,0 +1,201 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiListener;
+import com.linkedin.android.mobilesdk.listeners.ApiResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight layer for identical requests.
+ * The first caller for a key starts a {@link Flight} and dispatches it; callers arriving while it
+ * is still in flight are attached to it and receive the same result. A flight stays registered
+ * until its final result: in CACHE_FIRST mode the stored response is delivered first, and callers
+ * keep joining the flight while it is being refreshed.
+ */
+public class RequestCoalescer {
+
+  private final Map<String, Flight> inFlight = new HashMap<>();
+  private final AtomicLong coalescedCount = new AtomicLong();
+
+  public static String buildKey(int method, @NonNull String url, @NonNull String accessToken) {
+    return method + " " + url + " " + accessToken;
+  }
+
+  /**
+   * Attaches the caller to the request in flight for the given key, or registers a new one.
+   *
+   * @return a new Flight that the caller must dispatch, or null if the caller was attached to a
+   * request already in flight
+   */
+  @Nullable
+  public synchronized Flight join(@NonNull String key, @Nullable Object tag, @Nullable ApiListener apiListener) {
+    Flight flight = inFlight.get(key);
+    if (flight != null) {
+      flight.waiters.add(new Waiter(tag, apiListener));
+      coalescedCount.incrementAndGet();
+      return null;
+    }
+    flight = new Flight(key);
+    flight.waiters.add(new Waiter(tag, apiListener));
+    inFlight.put(key, flight);
+    return flight;
+  }
+
+  /**
+   * Detaches every caller registered with the given tag. A shared request is only abandoned once
+   * no caller is waiting for it anymore.
+   *
+   * @return the abandoned flights; the requests tagged with them should be cancelled
+   */
+  public synchronized List<Flight> cancel(@NonNull Object tag) {
+    List<Flight> abandoned = new ArrayList<>();
+    Iterator<Flight> flights = inFlight.values().iterator();
+    while (flights.hasNext()) {
+      Flight flight = flights.next();
+      Iterator<Waiter> waiters = flight.waiters.iterator();
+      while (waiters.hasNext()) {
+        if (waiters.next().tag == tag) {
+          waiters.remove();
+        }
+      }
+      if (flight.waiters.isEmpty()) {
+        flights.remove();
+        abandoned.add(flight);
+      }
+    }
+    return abandoned;
+  }
+
+  /**
+   * @return number of calls that were attached to a request already in flight instead of
+   * sending their own
+   */
+  public long getCoalescedCount() {
+    return coalescedCount.get();
+  }
+
+  private synchronized List<Waiter> complete(Flight flight) {
+    unregister(flight);
+    return new ArrayList<>(flight.waiters);
+  }
+
+  /**
+   * @param last true if the flight ends with the result being served
+   * @return the waiters that did not receive a result of the flight yet
+   */
+  private synchronized List<Waiter> serve(Flight flight, boolean last) {
+    if (last) {
+      unregister(flight);
+    }
+    List<Waiter> unserved = new ArrayList<>();
+    for (Waiter waiter : flight.waiters) {
+      if (!waiter.served) {
+        waiter.served = true;
+        unserved.add(waiter);
+      }
+    }
+    return unserved;
+  }
+
+  private void unregister(Flight flight) {
+    if (inFlight.get(flight.key) == flight) {
+      inFlight.remove(flight.key);
+    }
+  }
+
+  private static class Waiter {
+    private final Object tag;
+    private final ApiListener apiListener;
+    // guarded by the coalescer
+    private boolean served;
+
+    Waiter(Object tag, ApiListener apiListener) {
+      this.tag = tag;
+      this.apiListener = apiListener;
+    }
+  }
+
+  /**
+   * A request shared by every caller attached to it. Results are fanned out to all waiters.
+   * The shared request is tagged with its Flight, so it can be cancelled by tag.
+   */
+  public final class Flight implements ApiListener {
+    private final String key;
+    private final List<Waiter> waiters = new ArrayList<>();
+
+    private Flight(String key) {
+      this.key = key;
+    }
+
+    /**
+     * @return number of callers waiting for the shared request
+     */
+    public int getCallerCount() {
+      synchronized (RequestCoalescer.this) {
+        return waiters.size();
+      }
+    }
+
+    @Override
+    public void onApiSuccess(ApiResponse apiResponse) {
+      deliver(complete(this), apiResponse);
+    }
+
+    /**
+     * Delivers a stored response ahead of its refresh. The flight stays registered, callers joining
+     * it from now on receive the result of the refresh.
+     */
+    public void onIntermediateResponse(@NonNull ApiResponse apiResponse) {
+      deliver(serve(this, false), apiResponse);
+    }
+
+    /**
+     * Ends the flight after its refresh came back unchanged: the stored response is the final one
+     * and is delivered to the callers that joined during the refresh.
+     */
+    public void onRefreshUnchanged(@NonNull ApiResponse apiResponse) {
+      deliver(serve(this, true), apiResponse);
+    }
+
+    private void deliver(List<Waiter> waiters, ApiResponse apiResponse) {
+      for (Waiter waiter : waiters) {
+        if (waiter.apiListener != null) {
+          waiter.apiListener.onApiSuccess(apiResponse);
+        }
+      }
+    }
+
+    @Override
+    public void onApiError(LIApiError LIApiError) {
+      for (Waiter waiter : complete(this)) {
+        if (waiter.apiListener != null) {
+          waiter.apiListener.onApiError(LIApiError);
+        }
+      }
+    }
+  }
+}
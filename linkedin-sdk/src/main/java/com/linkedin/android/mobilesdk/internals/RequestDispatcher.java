@@ -0,0 +1,303 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.linkedin.android.mobilesdk.ApiEvent;
+import com.linkedin.android.mobilesdk.RateLimitPolicy;
+import com.linkedin.android.mobilesdk.RetryPolicy;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.ApiEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Path of every {@link LIApiRequest} from the APIHelper to the request queue: fails calls that
+ * would outlive their access token and calls to an endpoint whose circuit is open, holds calls back according to the rate limit and schedules
+ * retries. Delayed calls wait on the main looper and can be cancelled by tag.
+ * <p>
+ * {@link #execute(LIApiRequest, long)} applies the same checks and retries to a call made on the
+ * caller's thread.
+ */
+public class RequestDispatcher {
+
+  private static final int HTTP_TOO_MANY_REQUESTS = 429;
+  private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+  private final QueueManager queueManager;
+  private final RetryEngine retryEngine = new RetryEngine();
+  private final RateLimiter rateLimiter = new RateLimiter();
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final List<DelayedSend> delayedSends = new ArrayList<>();
+  private final AtomicLong callIds = new AtomicLong();
+  private volatile ApiEventListener apiEventListener;
+
+  public RequestDispatcher(@NonNull QueueManager queueManager) {
+    this.queueManager = queueManager;
+  }
+
+  /**
+   * @param policy retry and circuit breaker settings, null disables both
+   */
+  public void setRetryPolicy(@Nullable RetryPolicy policy) {
+    retryEngine.setPolicy(policy);
+  }
+
+  /**
+   * @param policy client side rate limit, null only honors the server's throttling responses
+   */
+  public void setRateLimitPolicy(@Nullable RateLimitPolicy policy) {
+    rateLimiter.setPolicy(policy);
+  }
+
+  /**
+   * @param listener receives the events of the calls dispatched from now on, null stops reporting
+   */
+  public void setApiEventListener(@Nullable ApiEventListener listener) {
+    apiEventListener = listener;
+  }
+
+  /**
+   * Sends the request, now or once the rate limit allows it. If it is rejected the error is
+   * delivered right away, on the calling thread.
+   */
+  public void dispatch(@NonNull LIApiRequest<?> request) {
+    request.setDispatcher(this);
+    ApiEventListener listener = apiEventListener;
+    if (listener != null) {
+      request.startEvents(listener, callIds);
+      request.emit(ApiEvent.Type.ENQUEUED);
+    }
+    if (request.outlivesToken(0)) {
+      request.fail(tokenExpiredError());
+      return;
+    }
+    LIApiError circuitError = retryEngine.checkCircuit(request.getUrl());
+    if (circuitError != null) {
+      request.fail(circuitError);
+      return;
+    }
+    long waitMs = rateLimiter.tryAcquire(request.getMaxThrottleWaitMs());
+    if (waitMs < 0) {
+      request.fail(new LIApiError(LIApiError.ErrorType.rateLimited,
+          "rate limit exceeded for " + request.getUrl(), null));
+    } else if (request.outlivesToken(waitMs)) {
+      request.fail(tokenExpiredError());
+    } else if (waitMs == 0) {
+      queueManager.add(request);
+    } else {
+      schedule(new DelayedSend(request, false), waitMs);
+    }
+  }
+
+  /**
+   * Sends the request on the calling thread and waits for its result, including rate limit waits
+   * and retries. The request queue, the response cache and the main thread are not involved.
+   *
+   * @param deadline {@link SystemClock#elapsedRealtime()} time by which the call must have
+   *                 completed; each attempt times out when it is reached
+   * @return the result of the request
+   * @throws LIApiError if the call failed, was rejected or did not complete in time
+   */
+  public <T> T execute(@NonNull LIApiRequest<T> request, long deadline) throws LIApiError {
+    while (true) {
+      request.setDispatcher(this);
+      ApiEventListener listener = apiEventListener;
+      if (listener != null) {
+        request.startEvents(listener, callIds);
+        request.emit(ApiEvent.Type.ENQUEUED);
+      }
+      if (request.outlivesToken(0)) {
+        throw fail(request, tokenExpiredError());
+      }
+      LIApiError circuitError = retryEngine.checkCircuit(request.getUrl());
+      if (circuitError != null) {
+        throw fail(request, circuitError);
+      }
+      long waitMs = rateLimiter.tryAcquire(Math.min(request.getMaxThrottleWaitMs(), remainingMs(deadline)));
+      if (waitMs < 0) {
+        throw fail(request, new LIApiError(LIApiError.ErrorType.rateLimited,
+            "rate limit exceeded for " + request.getUrl(), null));
+      }
+      sleep(request, waitMs);
+      long remainingMs = remainingMs(deadline);
+      if (remainingMs == 0) {
+        throw fail(request, deadlineError(request));
+      }
+      request.setRetryPolicy(new DefaultRetryPolicy((int) Math.min(remainingMs, Integer.MAX_VALUE), 0, 1f));
+
+      VolleyError error;
+      try {
+        Response<T> response = request.parseNetworkResponse(queueManager.execute(request));
+        if (response.isSuccess()) {
+          request.deliverResponse(response.result);
+          return response.result;
+        }
+        error = response.error;
+      } catch (VolleyError e) {
+        error = e;
+      }
+      long delayMs = LIApiRequest.isRetryable(error) ? retryEngine.getRetryDelay(request, error) : -1;
+      if (delayMs < 0 || delayMs >= remainingMs(deadline)) {
+        boolean timedOut = error instanceof TimeoutError && remainingMs(deadline) == 0;
+        throw fail(request, timedOut ? deadlineError(request) : LIApiRequest.toApiError(error));
+      }
+      request.emit(ApiEvent.Type.ATTEMPT_FAILED);
+      sleep(request, delayMs);
+      request = request.copy();
+    }
+  }
+
+  /**
+   * Drops the delayed calls and retries with the given tag and cancels its queued requests.
+   */
+  public void cancelAll(@NonNull Object tag) {
+    synchronized (delayedSends) {
+      Iterator<DelayedSend> iterator = delayedSends.iterator();
+      while (iterator.hasNext()) {
+        DelayedSend send = iterator.next();
+        if (send.request.getTag() == tag) {
+          handler.removeCallbacks(send);
+          iterator.remove();
+        }
+      }
+    }
+    queueManager.cancelAll(tag);
+  }
+
+  void onNetworkSuccess(LIApiRequest<?> request) {
+    retryEngine.onSuccess(request.getOriginUrl());
+    rateLimiter.onSuccess();
+  }
+
+  void onNetworkFailure(LIApiRequest<?> request, VolleyError error) {
+    retryEngine.onFailure(request.getOriginUrl(), error);
+    NetworkResponse response = error.networkResponse;
+    if (response != null) {
+      String retryAfter = response.headers == null ? null : response.headers.get(HEADER_RETRY_AFTER);
+      if (response.statusCode == HTTP_TOO_MANY_REQUESTS || retryAfter != null) {
+        rateLimiter.onThrottled(parseRetryAfter(retryAfter));
+      }
+    }
+  }
+
+  /**
+   * @return true if the request is retried and the error must not be delivered
+   */
+  boolean onError(LIApiRequest<?> request, VolleyError error) {
+    long delayMs = retryEngine.getRetryDelay(request, error);
+    if (delayMs < 0) {
+      return false;
+    }
+    schedule(new DelayedSend(request.copy(), true), delayMs);
+    return true;
+  }
+
+  private void schedule(DelayedSend send, long delayMs) {
+    synchronized (delayedSends) {
+      delayedSends.add(send);
+    }
+    handler.postDelayed(send, delayMs);
+  }
+
+  private static long remainingMs(long deadline) {
+    return Math.max(0, deadline - SystemClock.elapsedRealtime());
+  }
+
+  private static void sleep(LIApiRequest<?> request, long ms) throws LIApiError {
+    if (ms <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(ms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw fail(request, new LIApiError("interrupted while waiting to send " + request.getUrl(), e));
+    }
+  }
+
+  private static LIApiError fail(LIApiRequest<?> request, LIApiError error) {
+    request.fail(error);
+    return error;
+  }
+
+  private static LIApiError deadlineError(LIApiRequest<?> request) {
+    return new LIApiError(LIApiError.ErrorType.deadlineExceeded,
+        "deadline exceeded before " + request.getUrl() + " completed", null);
+  }
+
+  private static LIApiError tokenExpiredError() {
+    return new LIApiError(LIApiError.ErrorType.accessTokenIsNotSet,
+        "access token expires before the request can complete", null);
+  }
+
+  /**
+   * @return the delay asked for by a Retry-After header in seconds or as an http date, or -1
+   */
+  private static long parseRetryAfter(String retryAfter) {
+    if (retryAfter == null) {
+      return -1;
+    }
+    try {
+      return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+    } catch (NumberFormatException e) {
+      long date = HttpHeaderParser.parseDateAsEpoch(retryAfter);
+      return date == 0 ? -1 : Math.max(0, date - System.currentTimeMillis());
+    }
+  }
+
+  private class DelayedSend implements Runnable {
+    private final LIApiRequest<?> request;
+    private final boolean redispatch;
+
+    /**
+     * @param redispatch true for a retry, which goes through the circuit and rate limit checks
+     *                   again; false for a call that already holds its rate limit slot
+     */
+    DelayedSend(LIApiRequest<?> request, boolean redispatch) {
+      this.request = request;
+      this.redispatch = redispatch;
+    }
+
+    @Override
+    public void run() {
+      synchronized (delayedSends) {
+        if (!delayedSends.remove(this)) {
+          return;
+        }
+      }
+      if (redispatch) {
+        dispatch(request);
+      } else {
+        queueManager.add(request);
+      }
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.android.volley.NetworkError;
+import com.android.volley.NoConnectionError;
+import com.android.volley.Request;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.linkedin.android.mobilesdk.RetryPolicy;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Decides on retries of failed {@link LIApiRequest}s according to a {@link RetryPolicy} and keeps
+ * a {@link CircuitBreaker} per endpoint, i.e. per host and path template.
+ * Without a policy nothing is retried and every circuit stays closed.
+ */
+class RetryEngine {
+
+  private static final String ID_SEGMENT = "{id}";
+  private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+  private final Random random = new Random();
+  private final Map<String, CircuitBreaker> breakers = new HashMap<>();
+  private volatile RetryPolicy policy;
+
+  /**
+   * @param policy retry and circuit breaker settings, null disables both
+   */
+  void setPolicy(@Nullable RetryPolicy policy) {
+    synchronized (breakers) {
+      this.policy = policy;
+      breakers.clear();
+    }
+  }
+
+  /**
+   * @return null if the call may be sent, otherwise the error to fail it with right away
+   */
+  @Nullable
+  LIApiError checkCircuit(@NonNull String url) {
+    CircuitBreaker breaker = getBreaker(url);
+    if (breaker == null || breaker.allowRequest()) {
+      return null;
+    }
+    return new LIApiError(LIApiError.ErrorType.circuitOpen, "circuit open for " + endpointKey(url), null);
+  }
+
+  /**
+   * Called on the network thread with the outcome of every attempt.
+   */
+  void onSuccess(@NonNull String url) {
+    CircuitBreaker breaker = getBreaker(url);
+    if (breaker != null) {
+      breaker.onSuccess();
+    }
+  }
+
+  void onFailure(@NonNull String url, @NonNull VolleyError error) {
+    CircuitBreaker breaker = getBreaker(url);
+    // a missing connection is the device's problem, not the endpoint's
+    if (breaker != null && isTransient(error) && !(error instanceof NoConnectionError)) {
+      breaker.onFailure();
+    }
+  }
+
+  /**
+   * @return the delay before the next attempt of the failed request, or -1 if it must not be
+   * retried
+   */
+  long getRetryDelay(@NonNull LIApiRequest<?> request, @NonNull VolleyError error) {
+    RetryPolicy retryPolicy = policy;
+    if (retryPolicy == null || request.isCanceled() || request.getAttempt() >= retryPolicy.getMaxAttempts()
+        || !(isTransient(error) || isThrottled(error))
+        || !(retryPolicy.isRetryNonIdempotent() || isIdempotent(request.getMethod()))) {
+      return -1;
+    }
+    long ceiling = Math.min(retryPolicy.getMaxDelayMs(),
+        retryPolicy.getBaseDelayMs() << Math.min(request.getAttempt() - 1, 30));
+    return (long) (random.nextDouble() * ceiling);
+  }
+
+  private CircuitBreaker getBreaker(String url) {
+    synchronized (breakers) {
+      RetryPolicy retryPolicy = policy;
+      if (retryPolicy == null) {
+        return null;
+      }
+      String key = endpointKey(url);
+      CircuitBreaker breaker = breakers.get(key);
+      if (breaker == null) {
+        breaker = new CircuitBreaker(retryPolicy.getFailureThreshold(), retryPolicy.getOpenDurationMs());
+        breakers.put(key, breaker);
+      }
+      return breaker;
+    }
+  }
+
+  /**
+   * @return true for 5xx responses and for failures without a response, e.g. timeouts
+   */
+  private static boolean isTransient(VolleyError error) {
+    if (error.networkResponse != null) {
+      return error.networkResponse.statusCode >= 500;
+    }
+    return error instanceof TimeoutError || error instanceof NetworkError;
+  }
+
+  /**
+   * 429s are retried as well; the rate limiter holds the retry back until the Retry-After time
+   */
+  private static boolean isThrottled(VolleyError error) {
+    return error.networkResponse != null && error.networkResponse.statusCode == HTTP_TOO_MANY_REQUESTS;
+  }
+
+  private static boolean isIdempotent(int method) {
+    return method != Request.Method.POST && method != Request.Method.PATCH;
+  }
+
+  /**
+   * Host and path of the url with the query, LinkedIn field selectors ":(...)" and id-like path
+   * segments removed, so "https://api.linkedin.com/v1/people/id=abc:(first-name)?format=json" and
+   * ".../people/id=xyz" share the key "api.linkedin.com/v1/people/{id}".
+   */
+  static String endpointKey(String url) {
+    int start = url.indexOf("://");
+    start = start < 0 ? 0 : start + 3;
+    int end = url.length();
+    for (int i = start; i < url.length(); i++) {
+      char c = url.charAt(i);
+      if (c == '?' || c == '#') {
+        end = i;
+        break;
+      }
+    }
+    StringBuilder key = new StringBuilder(end - start);
+    int segmentStart = start;
+    while (segmentStart <= end) {
+      int segmentEnd = url.indexOf('/', segmentStart);
+      if (segmentEnd < 0 || segmentEnd > end) {
+        segmentEnd = end;
+      }
+      String segment = url.substring(segmentStart, segmentEnd);
+      int selector = segment.indexOf(":(");
+      if (selector >= 0) {
+        segment = segment.substring(0, selector);
+      }
+      if (segmentStart != start) {
+        key.append('/');
+      }
+      key.append(segmentStart != start && isIdSegment(segment) ? ID_SEGMENT : segment);
+      segmentStart = segmentEnd + 1;
+    }
+    return key.toString();
+  }
+
+  private static boolean isIdSegment(String segment) {
+    if (segment.indexOf('=') >= 0) {
+      return true;
+    }
+    if (segment.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < segment.length(); i++) {
+      if (!Character.isDigit(segment.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
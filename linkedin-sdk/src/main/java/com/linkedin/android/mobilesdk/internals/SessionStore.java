@@ -0,0 +1,138 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.linkedin.android.mobilesdk.AccessToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Persists the session's access token in a small binary file:
+ * [byte version][long expiresOn][modified UTF-8 token value].
+ * Tokens saved as json in shared preferences by earlier versions are migrated on first read.
+ * <p>
+ * Does blocking file I/O, so it must not be used from the main thread.
+ */
+public class SessionStore {
+
+  private static final String TAG = SessionStore.class.getSimpleName();
+  private static final String SESSION_FILE = "li_sdk_session";
+  private static final byte FORMAT_VERSION = 1;
+  private static final String LEGACY_SHARED_PREF_STORE = "li_shared_pref_store";
+  private static final String LEGACY_ACCESS_TOKEN = "li_sdk_access_token";
+
+  private final Context context;
+  private final File file;
+
+  public SessionStore(@NonNull Context context) {
+    this.context = context.getApplicationContext();
+    this.file = new File(this.context.getFilesDir(), SESSION_FILE);
+  }
+
+  /**
+   * @return the stored token, or null if there is none or it cannot be read
+   */
+  @Nullable
+  public AccessToken read() {
+    if (!file.exists()) {
+      return migrateLegacyToken();
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new FileInputStream(file));
+      if (in.readByte() != FORMAT_VERSION) {
+        return null;
+      }
+      long expiresOn = in.readLong();
+      return new AccessToken(in.readUTF(), expiresOn);
+    } catch (IOException exception) {
+      Log.e(TAG, exception.getMessage(), exception);
+      return null;
+    } finally {
+      closeQuietly(in);
+    }
+  }
+
+  /**
+   * Replaces the stored token atomically.
+   *
+   * @param accessToken the token to store, null deletes it
+   */
+  public void write(@Nullable AccessToken accessToken) {
+    if (accessToken == null) {
+      if (file.exists() && !file.delete()) {
+        Log.e(TAG, "unable to delete " + file);
+      }
+      return;
+    }
+    File tmp = new File(file.getPath() + ".tmp");
+    FileOutputStream out = null;
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + accessToken.getValue().length());
+      DataOutputStream data = new DataOutputStream(bytes);
+      data.writeByte(FORMAT_VERSION);
+      data.writeLong(accessToken.getExpiresOn());
+      data.writeUTF(accessToken.getValue());
+      out = new FileOutputStream(tmp);
+      bytes.writeTo(out);
+      out.getFD().sync();
+      out.close();
+      out = null;
+      if (!tmp.renameTo(file)) {
+        throw new IOException("unable to replace " + file);
+      }
+    } catch (IOException exception) {
+      Log.e(TAG, exception.getMessage(), exception);
+    } finally {
+      closeQuietly(out);
+    }
+  }
+
+  private AccessToken migrateLegacyToken() {
+    SharedPreferences sharedPref = context.getSharedPreferences(LEGACY_SHARED_PREF_STORE, Context.MODE_PRIVATE);
+    String accessTokenStr = sharedPref.getString(LEGACY_ACCESS_TOKEN, null);
+    if (accessTokenStr == null) {
+      return null;
+    }
+    AccessToken accessToken = AccessToken.buildAccessToken(accessTokenStr);
+    write(accessToken);
+    sharedPref.edit().remove(LEGACY_ACCESS_TOKEN).apply();
+    return accessToken;
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    if (closeable != null) {
+      try {
+        closeable.close();
+      } catch (IOException ignored) {
+        // nothing left to do
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import com.android.volley.toolbox.ByteArrayPool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * {@link ByteArrayPool} that counts how many buffer requests it could serve.
+ * Same policy as Volley's pool: smallest fitting buffer first, least recently returned evicted
+ * first once the size limit is exceeded.
+ */
+class StatsByteArrayPool extends ByteArrayPool {
+
+  private final List<byte[]> buffersByLastUse = new LinkedList<>();
+  private final List<byte[]> buffersBySize = new ArrayList<>(64);
+  private final int sizeLimit;
+  private int currentSize;
+  private long hits;
+  private long misses;
+
+  StatsByteArrayPool(int sizeLimit) {
+    super(sizeLimit);
+    this.sizeLimit = sizeLimit;
+  }
+
+  @Override
+  public synchronized byte[] getBuf(int len) {
+    for (int i = 0; i < buffersBySize.size(); i++) {
+      byte[] buf = buffersBySize.get(i);
+      if (buf.length >= len) {
+        currentSize -= buf.length;
+        buffersBySize.remove(i);
+        buffersByLastUse.remove(buf);
+        hits++;
+        return buf;
+      }
+    }
+    misses++;
+    return new byte[len];
+  }
+
+  @Override
+  public synchronized void returnBuf(byte[] buf) {
+    if (buf == null || buf.length > sizeLimit) {
+      return;
+    }
+    buffersByLastUse.add(buf);
+    int pos = Collections.binarySearch(buffersBySize, buf, BUF_COMPARATOR);
+    if (pos < 0) {
+      pos = -pos - 1;
+    }
+    buffersBySize.add(pos, buf);
+    currentSize += buf.length;
+    while (currentSize > sizeLimit) {
+      byte[] oldest = buffersByLastUse.remove(0);
+      buffersBySize.remove(oldest);
+      currentSize -= oldest.length;
+    }
+  }
+
+  synchronized long getHits() {
+    return hits;
+  }
+
+  synchronized long getMisses() {
+    return misses;
+  }
+}
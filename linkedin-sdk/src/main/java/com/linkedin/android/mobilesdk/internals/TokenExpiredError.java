@@ -0,0 +1,29 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import com.android.volley.VolleyError;
+
+/**
+ * Raised on the network thread instead of sending a request whose access token expires before
+ * the request could complete.
+ */
+class TokenExpiredError extends VolleyError {
+
+  TokenExpiredError() {
+    super("access token expires before the request can complete");
+  }
+}
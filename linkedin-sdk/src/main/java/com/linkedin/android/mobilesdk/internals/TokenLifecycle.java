@@ -0,0 +1,109 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.linkedin.android.mobilesdk.AccessToken;
+import com.linkedin.android.mobilesdk.listeners.TokenLifecycleListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single timer on the main thread firing the near-expiry and expiry events of the current access
+ * token. It is re-armed whenever the token changes.
+ */
+public class TokenLifecycle {
+
+  private static final long DEFAULT_NEAR_EXPIRY_MARGIN_MS = 5 * 60 * 1000;
+
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final List<TokenLifecycleListener> listeners = new CopyOnWriteArrayList<>();
+  private final Runnable timer = new Runnable() {
+    @Override
+    public void run() {
+      fire();
+    }
+  };
+  private volatile long nearExpiryMarginMs = DEFAULT_NEAR_EXPIRY_MARGIN_MS;
+  // confined to the main thread
+  private AccessToken accessToken;
+  private boolean expiringNotified;
+
+  public void addListener(@NonNull TokenLifecycleListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(@NonNull TokenLifecycleListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * @param nearExpiryMarginMs how long before the expiry {@link TokenLifecycleListener#onTokenExpiring}
+   *                           is called
+   */
+  public void setNearExpiryMargin(long nearExpiryMarginMs) {
+    this.nearExpiryMarginMs = nearExpiryMarginMs;
+  }
+
+  /**
+   * Re-arms the timer for the given token; may be called from any thread.
+   *
+   * @param accessToken the session's new token, null if there is none
+   */
+  public void onTokenChanged(@Nullable final AccessToken accessToken) {
+    handler.post(new Runnable() {
+      @Override
+      public void run() {
+        TokenLifecycle.this.accessToken = accessToken;
+        expiringNotified = false;
+        fire();
+      }
+    });
+  }
+
+  /**
+   * Notifies whatever is due and schedules the next event.
+   */
+  private void fire() {
+    handler.removeCallbacks(timer);
+    AccessToken current = accessToken;
+    if (current == null) {
+      return;
+    }
+    long remainingMs = current.getExpiresOn() - System.currentTimeMillis();
+    if (remainingMs <= 0) {
+      accessToken = null;
+      for (TokenLifecycleListener listener : listeners) {
+        listener.onTokenExpired(current);
+      }
+      return;
+    }
+    long untilNearExpiry = remainingMs - nearExpiryMarginMs;
+    if (untilNearExpiry <= 0 && !expiringNotified) {
+      expiringNotified = true;
+      for (TokenLifecycleListener listener : listeners) {
+        listener.onTokenExpiring(current, remainingMs);
+      }
+    }
+    // the handler clock stops while the device sleeps, so a late wake-up is re-checked here
+    handler.postDelayed(timer, expiringNotified ? remainingMs : untilNearExpiry);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.JsonReader;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.linkedin.android.mobilesdk.binding.TypeAdapter;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+import com.linkedin.android.mobilesdk.listeners.TypedApiListener;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Map;
+
+/**
+ * Request delivering the response body bound to T by a {@link TypeAdapter}.
+ * The body is streamed through the adapter on the network dispatcher thread, without building a
+ * String or a JSONObject tree.
+ */
+public class TypedApiRequest<T> extends LIApiRequest<T> {
+
+  private final TypeAdapter<T> typeAdapter;
+  private final TypedApiListener<T> apiListener;
+
+  public TypedApiRequest(int method, @NonNull String url, @NonNull Map<String, String> headers,
+                         @Nullable JSONObject body, boolean cacheFirst, long maxStaleMs,
+                         @NonNull TypeAdapter<T> typeAdapter, @Nullable TypedApiListener<T> apiListener) {
+    super(method, url, headers, body, cacheFirst, maxStaleMs);
+    this.typeAdapter = typeAdapter;
+    this.apiListener = apiListener;
+  }
+
+  private TypedApiRequest(TypedApiRequest<T> previous) {
+    super(previous);
+    this.typeAdapter = previous.typeAdapter;
+    this.apiListener = previous.apiListener;
+  }
+
+  @Override
+  protected TypedApiRequest<T> copy() {
+    return new TypedApiRequest<>(this);
+  }
+
+  @Override
+  protected T parseResult(NetworkResponse response) throws IOException {
+    if (response.data == null || response.data.length == 0) {
+      return null;
+    }
+    JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(response.data),
+        HttpHeaderParser.parseCharset(response.headers)));
+    try {
+      return typeAdapter.read(reader);
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Override
+  protected void deliverResult(T response) {
+    if (apiListener != null) {
+      apiListener.onApiSuccess(response);
+    }
+  }
+
+  @Override
+  protected void deliverApiError(LIApiError error) {
+    if (apiListener != null) {
+      apiListener.onApiError(error);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.ApiEvent;
+
+/**
+ * Receives the timeline of every call made through the APIHelper, see
+ * {@link com.linkedin.android.mobilesdk.APIHelper#setApiEventListener(ApiEventListener)}.
+ * <p>
+ * Events are reported on the thread where they happen (caller, network dispatcher or main
+ * thread), so implementations must be fast and thread safe.
+ */
+public interface ApiEventListener {
+
+  /**
+   * @param apiEvent the call's event record, updated in place for each of its events; it must
+   *                 not be retained after this method returns
+   */
+  void onApiEvent(ApiEvent apiEvent);
+}
@@ -15,21 +15,42 @@
 */
 package com.linkedin.android.mobilesdk.listeners;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.Log;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+
+/**
+ * Response to an api call.
+ * The body is kept as the raw bytes received from the network; it is decoded to a String only
+ * when first asked for, and the String is kept for later calls. Json is parsed per call, as every
+ * caller gets a JSONObject of its own; see {@link #prepareJson()} to parse it ahead.
+ */
 public class ApiResponse {
   private static final String TAG = ApiResponse.class.getSimpleName();
   private static final String LOCATION = "Location";
   private static final String STATUS_CODE = "StatusCode";
   private static final String DATA = "responseData";
+  private static final String DEFAULT_CHARSET = "UTF-8";
+  private static final byte[] EMPTY = new byte[0];
 
   private final int statusCode;
-  private final String responseData;
+  private final byte[] responseBytes;
+  private final String charset;
   private final String locationHeader;
 
+  private String responseData;
+  private boolean responseDataDecoded;
+  // parsed ahead by prepareJson() and handed to the first caller only
+  private JSONObject preparedJson;
+
   public static synchronized ApiResponse buildApiResponse(JSONObject apiResponseAsJson) {
     try {
       int statusCode = apiResponseAsJson.optInt(STATUS_CODE);
@@ -44,7 +65,21 @@ public class ApiResponse {
 
   public ApiResponse(int statusCode, String responseData, String locationHeader) {
     this.statusCode = statusCode;
+    this.responseBytes = null;
+    this.charset = DEFAULT_CHARSET;
     this.responseData = responseData;
+    this.responseDataDecoded = true;
+    this.locationHeader = locationHeader;
+  }
+
+  /**
+   * @param responseBytes body as received, not copied; may be null or empty
+   * @param charset       charset used to decode the body
+   */
+  public ApiResponse(int statusCode, @Nullable byte[] responseBytes, @NonNull String charset, String locationHeader) {
+    this.statusCode = statusCode;
+    this.responseBytes = responseBytes;
+    this.charset = charset;
     this.locationHeader = locationHeader;
   }
 
@@ -52,20 +87,94 @@ public class ApiResponse {
     return statusCode;
   }
 
-  public String getResponseDataAsString() {
+  /**
+   * @return the body decoded with the response charset, or null if there is no body
+   */
+  public synchronized String getResponseDataAsString() {
+    if (!responseDataDecoded) {
+      responseDataDecoded = true;
+      if (responseBytes != null && responseBytes.length != 0) {
+        try {
+          responseData = new String(responseBytes, charset);
+        } catch (UnsupportedEncodingException exception) {
+          Log.d(TAG, exception.getMessage(), exception);
+        }
+      }
+    }
     return responseData;
   }
 
-  public JSONObject getResponseDataAsJson() {
-    if (responseData == null || "".equals(responseData)) {
-      return null;
+  /**
+   * @return the body parsed as json, or null if there is no body or it is not a json object.
+   * Every call returns a new instance, so callers sharing the response cannot see each other's
+   * changes.
+   */
+  public synchronized JSONObject getResponseDataAsJson() {
+    JSONObject json = preparedJson;
+    if (json != null) {
+      preparedJson = null;
+      return json;
+    }
+    return parseJson();
+  }
+
+  /**
+   * Decodes and parses the body now, e.g. on a background thread, instead of in the first call
+   * to {@link #getResponseDataAsJson()}, which then returns the parsed instance.
+   */
+  public synchronized void prepareJson() {
+    if (preparedJson == null) {
+      preparedJson = parseJson();
+    }
+  }
+
+  private JSONObject parseJson() {
+    String data = getResponseDataAsString();
+    if (data != null && !"".equals(data)) {
+      try {
+        return new JSONObject(data);
+      } catch (JSONException exception) {
+        Log.d(TAG, exception.getMessage(), exception);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return a stream over the body bytes, without copying them
+   */
+  public InputStream getResponseDataAsStream() {
+    return new ByteArrayInputStream(getResponseBytes());
+  }
+
+  /**
+   * @return a read-only view of the body bytes, without copying them
+   */
+  public ByteBuffer getResponseDataAsByteBuffer() {
+    return ByteBuffer.wrap(getResponseBytes()).asReadOnlyBuffer();
+  }
+
+  /**
+   * @return the charset the body is decoded with
+   */
+  public String getCharset() {
+    return charset;
+  }
+
+  private byte[] getResponseBytes() {
+    if (responseBytes != null) {
+      return responseBytes;
+    }
+    String data = getResponseDataAsString();
+    if (data == null) {
+      return EMPTY;
     }
     try {
-      return new JSONObject(responseData);
-    } catch (JSONException exception) {
+      return data.getBytes(charset);
+    } catch (UnsupportedEncodingException exception) {
       Log.d(TAG, exception.getMessage(), exception);
+      return EMPTY;
     }
-    return null;
   }
 
   public String getLocationHeader() {
@@ -77,7 +186,7 @@ public class ApiResponse {
     JSONObject apiResponseAsJson = new JSONObject();
     try {
       apiResponseAsJson.put(STATUS_CODE, statusCode);
-      apiResponseAsJson.put(DATA, responseData);
+      apiResponseAsJson.put(DATA, getResponseDataAsString());
       apiResponseAsJson.put(LOCATION, locationHeader);
     } catch (JSONException exception) {
       Log.d(TAG, exception.getMessage(), exception);
@@ -0,0 +1,43 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.ApiSubscription;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+/**
+ * Receives the items of an {@link com.linkedin.android.mobilesdk.ApiPublisher}, on the main thread.
+ * No items are sent before they are asked for with {@link ApiSubscription#request(long)}.
+ */
+public interface ApiSubscriber<T> {
+
+  /**
+   * called once, before any other method
+   */
+  void onSubscribe(ApiSubscription subscription);
+
+  void onNext(T item);
+
+  /**
+   * called at most once; no other method is called afterwards
+   */
+  void onError(LIApiError LIApiError);
+
+  /**
+   * called at most once, after the last item; no other method is called afterwards
+   */
+  void onComplete();
+}
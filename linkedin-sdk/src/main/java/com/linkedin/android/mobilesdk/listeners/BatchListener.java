@@ -0,0 +1,38 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.BatchRequest;
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+public interface BatchListener {
+
+  /**
+   * called once every call of the batch completed, successfully or not
+   *
+   * @param batchResult per call results, in the order the calls were added
+   */
+  void onBatchComplete(BatchResult batchResult);
+
+  /**
+   * called in {@link BatchRequest.Mode#ALL_OR_NOTHING} mode when the first call fails; the
+   * remaining calls have been cancelled
+   *
+   * @param error       the error of the failed call
+   * @param batchResult results of the calls that completed before the failure
+   */
+  void onBatchError(LIApiError error, BatchResult batchResult);
+}
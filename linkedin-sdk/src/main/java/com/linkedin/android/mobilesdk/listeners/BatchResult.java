@@ -0,0 +1,74 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+/**
+ * Results of a {@link com.linkedin.android.mobilesdk.BatchRequest}, indexed in the order the calls
+ * were added to the batch. A call that did not complete has neither a response nor an error.
+ */
+public class BatchResult {
+
+  private final ApiResponse[] responses;
+  private final LIApiError[] errors;
+
+  public BatchResult(int size) {
+    responses = new ApiResponse[size];
+    errors = new LIApiError[size];
+  }
+
+  public synchronized void set(int index, ApiResponse apiResponse, LIApiError error) {
+    responses[index] = apiResponse;
+    errors[index] = error;
+  }
+
+  public int size() {
+    return responses.length;
+  }
+
+  public synchronized ApiResponse getResponse(int index) {
+    return responses[index];
+  }
+
+  public synchronized LIApiError getError(int index) {
+    return errors[index];
+  }
+
+  public synchronized boolean isSuccess(int index) {
+    return errors[index] == null && responses[index] != null;
+  }
+
+  public synchronized int getSuccessCount() {
+    int count = 0;
+    for (int i = 0; i < responses.length; i++) {
+      if (isSuccess(i)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public synchronized int getErrorCount() {
+    int count = 0;
+    for (LIApiError error : errors) {
+      if (error != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
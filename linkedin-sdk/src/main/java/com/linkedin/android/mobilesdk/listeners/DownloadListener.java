@@ -0,0 +1,40 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+import java.io.File;
+
+/**
+ * Callbacks of {@link com.linkedin.android.mobilesdk.APIHelper#downloadRequest}, all on the main
+ * thread.
+ */
+public interface DownloadListener {
+
+  /**
+   * @param bytesWritten bytes written to the file so far
+   * @param totalBytes   size announced by the server, -1 if unknown
+   */
+  void onDownloadProgress(long bytesWritten, long totalBytes);
+
+  /**
+   * @param file the complete response body
+   */
+  void onDownloadSuccess(File file);
+
+  void onDownloadError(LIApiError LIApiError);
+}
@@ -0,0 +1,64 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import java.util.List;
+
+/**
+ * One page of a listing endpoint, see {@link com.linkedin.android.mobilesdk.Pager}.
+ */
+public class Page<T> {
+
+  private final int start;
+  private final int total;
+  private final List<T> items;
+  private final boolean last;
+
+  /**
+   * @param total number of items of the listing, -1 if the server did not report it
+   */
+  public Page(int start, int total, List<T> items, boolean last) {
+    this.start = start;
+    this.total = total;
+    this.items = items;
+    this.last = last;
+  }
+
+  /**
+   * @return position of the first item of this page in the listing
+   */
+  public int getStart() {
+    return start;
+  }
+
+  /**
+   * @return number of items of the listing, -1 if unknown
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  /**
+   * @return true if no page follows this one
+   */
+  public boolean isLast() {
+    return last;
+  }
+}
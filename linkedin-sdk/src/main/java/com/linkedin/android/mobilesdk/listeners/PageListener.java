@@ -0,0 +1,40 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+/**
+ * Callbacks of a {@link com.linkedin.android.mobilesdk.Pager}, all on the delivery executor, the
+ * main thread by default.
+ */
+public interface PageListener<T> {
+
+  /**
+   * called once for every page asked for with {@link com.linkedin.android.mobilesdk.Pager#next()}
+   */
+  void onPage(Page<T> page);
+
+  /**
+   * called after the last page was delivered
+   */
+  void onPagingComplete();
+
+  /**
+   * called instead of the next page if it could not be loaded; no further pages are delivered
+   */
+  void onPagingError(LIApiError LIApiError);
+}
@@ -0,0 +1,41 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.AccessToken;
+
+/**
+ * Notified on the main thread as the session's access token approaches its expiry, see
+ * {@link com.linkedin.android.mobilesdk.LISessionManager#addTokenLifecycleListener(TokenLifecycleListener)}.
+ */
+public interface TokenLifecycleListener {
+
+  /**
+   * called once the token is within the near-expiry margin; a good time to re-authorize
+   *
+   * @param accessToken the expiring token
+   * @param remainingMs time left before it expires
+   */
+  void onTokenExpiring(AccessToken accessToken, long remainingMs);
+
+  /**
+   * called when the token expired; api calls fail with
+   * {@link com.linkedin.android.mobilesdk.errors.LIApiError.ErrorType#accessTokenIsNotSet} from now on
+   *
+   * @param accessToken the expired token
+   */
+  void onTokenExpired(AccessToken accessToken);
+}
@@ -0,0 +1,29 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.listeners;
+
+import com.linkedin.android.mobilesdk.errors.LIApiError;
+
+public interface TypedApiListener<T> {
+
+  /**
+   * @param response the response body bound to T, already decoded off the main thread;
+   *                 null if the response had no body
+   */
+  void onApiSuccess(T response);
+
+  void onApiError(LIApiError LIApiError);
+}
@@ -0,0 +1,233 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.transport;
+
+import android.os.SystemClock;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Cache;
+import com.android.volley.Network;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.Request;
+import com.android.volley.RetryPolicy;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.ByteArrayPool;
+import com.android.volley.toolbox.PoolingByteArrayOutputStream;
+import com.linkedin.android.mobilesdk.internals.LIApiRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Volley {@link Network} executing requests with OkHttp. Mirrors the error handling and
+ * conditional request support of Volley's BasicNetwork.
+ */
+class OkHttpNetwork implements Network {
+
+  private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+  private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+  private static final int BUFFER_SIZE = 1024;
+  private static final String HTTP_DATE_PATTERN = "EEE, dd MMM yyyy HH:mm:ss 'GMT'";
+
+  private final OkHttpClient client;
+  private final ByteArrayPool pool;
+
+  OkHttpNetwork(OkHttpClient client, ByteArrayPool pool) {
+    this.client = client;
+    this.pool = pool;
+  }
+
+  @Override
+  public NetworkResponse performRequest(Request<?> request) throws VolleyError {
+    long requestStart = SystemClock.elapsedRealtime();
+    while (true) {
+      NetworkResponse networkResponse = null;
+      try {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl());
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+          builder.header(header.getKey(), header.getValue());
+        }
+        addCacheHeaders(builder, request.getCacheEntry());
+        setMethod(builder, request);
+
+        Response response = clientFor(request).newCall(builder.build()).execute();
+        if (request instanceof LIApiRequest) {
+          ((LIApiRequest<?>) request).onFirstByte();
+        }
+        int statusCode = response.code();
+        Map<String, String> responseHeaders = convertHeaders(response.headers());
+        ResponseBody responseBody = response.body();
+        if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+          if (responseBody != null) {
+            responseBody.close();
+          }
+          Cache.Entry entry = request.getCacheEntry();
+          if (entry == null) {
+            return new NetworkResponse(statusCode, null, responseHeaders, true,
+                SystemClock.elapsedRealtime() - requestStart);
+          }
+          entry.responseHeaders.putAll(responseHeaders);
+          return new NetworkResponse(statusCode, entry.data, entry.responseHeaders, true,
+              SystemClock.elapsedRealtime() - requestStart);
+        }
+
+        byte[] responseContents = responseBody == null ? new byte[0] : readBody(responseBody);
+        networkResponse = new NetworkResponse(statusCode, responseContents, responseHeaders, false,
+            SystemClock.elapsedRealtime() - requestStart);
+        if (statusCode < 200 || statusCode > 299) {
+          throw new IOException();
+        }
+        return networkResponse;
+      } catch (SocketTimeoutException e) {
+        attemptRetryOnException(request, new TimeoutError());
+      } catch (IllegalArgumentException e) {
+        throw new RuntimeException("Bad URL " + request.getUrl(), e);
+      } catch (IOException e) {
+        if (networkResponse == null) {
+          throw new NoConnectionError(e);
+        }
+        int statusCode = networkResponse.statusCode;
+        if (statusCode == HttpURLConnection.HTTP_UNAUTHORIZED || statusCode == HttpURLConnection.HTTP_FORBIDDEN) {
+          attemptRetryOnException(request, new AuthFailureError(networkResponse));
+        } else if (networkResponse.data != null) {
+          throw new ServerError(networkResponse);
+        } else {
+          throw new NetworkError(networkResponse);
+        }
+      }
+    }
+  }
+
+  private byte[] readBody(ResponseBody responseBody) throws IOException {
+    long contentLength = responseBody.contentLength();
+    PoolingByteArrayOutputStream bytes = new PoolingByteArrayOutputStream(pool,
+        contentLength > 0 && contentLength < Integer.MAX_VALUE ? (int) contentLength : BUFFER_SIZE);
+    byte[] buffer = null;
+    try {
+      InputStream in = responseBody.byteStream();
+      buffer = pool.getBuf(BUFFER_SIZE);
+      int count;
+      while ((count = in.read(buffer)) != -1) {
+        bytes.write(buffer, 0, count);
+      }
+      return bytes.toByteArray();
+    } finally {
+      responseBody.close();
+      pool.returnBuf(buffer);
+      bytes.close();
+    }
+  }
+
+  private OkHttpClient clientFor(Request<?> request) {
+    long timeoutMs = request.getTimeoutMs();
+    if (timeoutMs == client.readTimeoutMillis()) {
+      return client;
+    }
+    // only for retries and blocking calls with a deadline, the client is built with the default
+    // timeout; shares the connection pool and dispatcher with the base client
+    return client.newBuilder()
+        .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  private static void setMethod(okhttp3.Request.Builder builder, Request<?> request) throws AuthFailureError {
+    switch (request.getMethod()) {
+      case Request.Method.GET:
+        builder.get();
+        break;
+      case Request.Method.DELETE:
+        builder.delete();
+        break;
+      case Request.Method.POST:
+        builder.post(createBody(request));
+        break;
+      case Request.Method.PUT:
+        builder.put(createBody(request));
+        break;
+      case Request.Method.HEAD:
+        builder.head();
+        break;
+      case Request.Method.OPTIONS:
+        builder.method("OPTIONS", null);
+        break;
+      case Request.Method.TRACE:
+        builder.method("TRACE", null);
+        break;
+      case Request.Method.PATCH:
+        builder.patch(createBody(request));
+        break;
+      default:
+        throw new IllegalStateException("Unknown method type.");
+    }
+  }
+
+  private static RequestBody createBody(Request<?> request) throws AuthFailureError {
+    byte[] body = request.getBody();
+    return RequestBody.create(MediaType.parse(request.getBodyContentType()), body == null ? new byte[0] : body);
+  }
+
+  private static void addCacheHeaders(okhttp3.Request.Builder builder, Cache.Entry entry) {
+    if (entry == null) {
+      return;
+    }
+    if (entry.etag != null) {
+      builder.header(HEADER_IF_NONE_MATCH, entry.etag);
+    }
+    if (entry.lastModified > 0) {
+      builder.header(HEADER_IF_MODIFIED_SINCE, formatDate(entry.lastModified));
+    }
+  }
+
+  private static String formatDate(long timeMs) {
+    SimpleDateFormat format = new SimpleDateFormat(HTTP_DATE_PATTERN, Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    return format.format(new Date(timeMs));
+  }
+
+  private static Map<String, String> convertHeaders(Headers headers) {
+    Map<String, String> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (int i = 0, size = headers.size(); i < size; i++) {
+      result.put(headers.name(i), headers.value(i));
+    }
+    return result;
+  }
+
+  private static void attemptRetryOnException(Request<?> request, VolleyError exception) throws VolleyError {
+    RetryPolicy retryPolicy = request.getRetryPolicy();
+    retryPolicy.retry(exception);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.transport;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Network;
+import com.android.volley.toolbox.ByteArrayPool;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Transport backed by OkHttp: a bounded connection pool with keep-alive and HTTP/2, so concurrent
+ * calls to api.linkedin.com are multiplexed over a single connection instead of opening one
+ * connection per call.
+ * <p>
+ * OkHttp is not a dependency of the SDK; add com.squareup.okhttp3:okhttp 3.8 or newer to use
+ * this transport.
+ */
+public class OkHttpTransport implements Transport {
+
+  private final OkHttpClient client;
+
+  private OkHttpTransport(OkHttpClient client) {
+    this.client = client;
+  }
+
+  @NonNull
+  @Override
+  public Network createNetwork(@NonNull Context context, @NonNull ByteArrayPool byteArrayPool) {
+    return new OkHttpNetwork(client, byteArrayPool);
+  }
+
+  public static class Builder {
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final long DEFAULT_KEEP_ALIVE_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long DEFAULT_CONNECT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+    // the timeout of requests with the default retry policy, so they can use the client as is
+    private static final long DEFAULT_READ_TIMEOUT_MS = DefaultRetryPolicy.DEFAULT_TIMEOUT_MS;
+
+    private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private long keepAliveMs = DEFAULT_KEEP_ALIVE_MS;
+    private long connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+    private boolean http2Enabled = true;
+    private OkHttpClient baseClient;
+
+    /**
+     * @param maxIdleConnections number of idle connections kept in the pool
+     */
+    public Builder setMaxIdleConnections(int maxIdleConnections) {
+      this.maxIdleConnections = maxIdleConnections;
+      return this;
+    }
+
+    /**
+     * @param keepAliveMs how long an idle connection is kept before it is evicted from the pool
+     */
+    public Builder setKeepAliveMs(long keepAliveMs) {
+      this.keepAliveMs = keepAliveMs;
+      return this;
+    }
+
+    public Builder setConnectTimeoutMs(long connectTimeoutMs) {
+      this.connectTimeoutMs = connectTimeoutMs;
+      return this;
+    }
+
+    /**
+     * @param http2Enabled if false only HTTP/1.1 is negotiated
+     */
+    public Builder setHttp2Enabled(boolean http2Enabled) {
+      this.http2Enabled = http2Enabled;
+      return this;
+    }
+
+    /**
+     * @param baseClient client whose configuration (interceptors, certificate pinning, ...) is
+     *                   reused; pool, protocol and timeout settings of this builder override it
+     */
+    public Builder setBaseClient(@NonNull OkHttpClient baseClient) {
+      this.baseClient = baseClient;
+      return this;
+    }
+
+    public OkHttpTransport build() {
+      OkHttpClient.Builder builder = baseClient == null ? new OkHttpClient.Builder() : baseClient.newBuilder();
+      builder.connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMs, TimeUnit.MILLISECONDS))
+          .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+          .readTimeout(DEFAULT_READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+          .writeTimeout(DEFAULT_READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+          .protocols(http2Enabled ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+              : Collections.singletonList(Protocol.HTTP_1_1));
+      return new OkHttpTransport(builder.build());
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.transport;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.android.volley.Network;
+import com.android.volley.toolbox.ByteArrayPool;
+
+/**
+ * The HTTP engine that SDK requests are sent through.
+ * Every api call is a Volley request on the {@link com.linkedin.android.mobilesdk.internals.QueueManager}
+ * queue; a Transport provides the {@link Network} that queue executes them with. File
+ * downloads do not go through it, see
+ * {@link com.linkedin.android.mobilesdk.APIHelper#downloadRequest(Context, String, java.io.File, com.linkedin.android.mobilesdk.listeners.DownloadListener)}.
+ * <p>
+ * {@link VolleyTransport} is used unless another transport is passed to
+ * {@link com.linkedin.android.mobilesdk.APIHelper#getInstance(Context, Transport)}.
+ */
+public interface Transport {
+
+  /**
+   * Called once, when the request queue is created.
+   *
+   * @param context       application context
+   * @param byteArrayPool pool response bodies should be read into
+   * @return the network the request queue executes requests with
+   */
+  @NonNull
+  Network createNetwork(@NonNull Context context, @NonNull ByteArrayPool byteArrayPool);
+}
@@ -0,0 +1,36 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.transport;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.android.volley.Network;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.ByteArrayPool;
+import com.android.volley.toolbox.HurlStack;
+
+/**
+ * Default transport: Volley's BasicNetwork over HttpURLConnection.
+ */
+public class VolleyTransport implements Transport {
+
+  @NonNull
+  @Override
+  public Network createNetwork(@NonNull Context context, @NonNull ByteArrayPool byteArrayPool) {
+    return new BasicNetwork(new HurlStack(), byteArrayPool);
+  }
+}
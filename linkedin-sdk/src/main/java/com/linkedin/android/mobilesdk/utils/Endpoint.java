@@ -0,0 +1,263 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.utils;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A REST api endpoint with its field projection, compiled once and reused for every call.
+ * <p>
+ * Typical usage:
+ * <p>
+ * static final Endpoint PROFILE = new Endpoint.Builder("/v1/people/{id}")
+ * .fields("last-name", "first-name", "positions:(title,company)").build();
+ * <p>
+ * APIHelper.getInstance(ctx).getRequest(ctx, PROFILE.url("~"), listener);
+ * <p>
+ * Projected fields and query parameters are sorted and de-duplicated, so endpoints listing the
+ * same fields in a different order produce the same url, and the urls are interned. Response
+ * cache entries and coalesced calls are keyed by url, so they are shared across call sites.
+ */
+public final class Endpoint {
+
+  private static final String DEFAULT_BASE_URL = "https://api.linkedin.com";
+  private static final String PATH_ARG_ALLOWED = "~=";
+
+  private final String template;
+  private final String[] literals;
+  private final String suffix;
+  private final String url;
+
+  private Endpoint(String template, String[] literals, String suffix) {
+    this.template = template;
+    this.literals = literals;
+    this.suffix = suffix;
+    this.url = literals.length == 1 ? (literals[0] + suffix).intern() : null;
+  }
+
+  /**
+   * @return the url of an endpoint without path parameters
+   */
+  @NonNull
+  public String url() {
+    if (url == null) {
+      throw new IllegalStateException(template + " takes " + (literals.length - 1) + " path arguments");
+    }
+    return url;
+  }
+
+  /**
+   * @param pathArgs values of the {name} placeholders of the path, in order; url encoded here
+   * @return the interned url
+   */
+  @NonNull
+  public String url(@NonNull String... pathArgs) {
+    if (pathArgs.length != literals.length - 1) {
+      throw new IllegalArgumentException(template + " takes " + (literals.length - 1) + " path arguments");
+    }
+    if (url != null) {
+      return url;
+    }
+    StringBuilder sb = new StringBuilder(template.length() + suffix.length() + 16 * pathArgs.length);
+    sb.append(literals[0]);
+    for (int i = 0; i < pathArgs.length; i++) {
+      sb.append(Uri.encode(pathArgs[i], PATH_ARG_ALLOWED)).append(literals[i + 1]);
+    }
+    return sb.append(suffix).toString().intern();
+  }
+
+  /**
+   * @return the url with its path placeholders, e.g. "https://api.linkedin.com/v1/people/{id}:(first-name)"
+   */
+  @NonNull
+  public String getTemplate() {
+    return template;
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+
+  public static class Builder {
+    private final String path;
+    private String baseUrl = DEFAULT_BASE_URL;
+    private final Map<String, Object> fields = new TreeMap<>();
+    private final Map<String, String> query = new TreeMap<>();
+
+    /**
+     * @param path path of the endpoint, e.g. "/v1/companies/{id}/updates"; each {name}
+     *             placeholder is filled in by {@link Endpoint#url(String...)}
+     */
+    public Builder(@NonNull String path) {
+      if (!path.startsWith("/")) {
+        throw new IllegalArgumentException("path must start with /: " + path);
+      }
+      this.path = path;
+    }
+
+    /**
+     * @param baseUrl scheme and host, "https://api.linkedin.com" by default
+     */
+    public Builder setBaseUrl(@NonNull String baseUrl) {
+      this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+      return this;
+    }
+
+    /**
+     * @param fields projected fields, each either a name or a nested projection such as
+     *               "positions:(title,company:(name))"
+     */
+    public Builder fields(@NonNull String... fields) {
+      for (String field : fields) {
+        new ProjectionParser(field).parseInto(this.fields);
+      }
+      return this;
+    }
+
+    /**
+     * Adds a query parameter sent with every call, e.g. ("format", "json").
+     */
+    public Builder query(@NonNull String name, @NonNull String value) {
+      query.put(name, value);
+      return this;
+    }
+
+    public Endpoint build() {
+      StringBuilder suffix = new StringBuilder();
+      if (!fields.isEmpty()) {
+        suffix.append(':');
+        appendProjection(suffix, fields);
+      }
+      char separator = '?';
+      for (Map.Entry<String, String> parameter : query.entrySet()) {
+        suffix.append(separator).append(Uri.encode(parameter.getKey()))
+            .append('=').append(Uri.encode(parameter.getValue()));
+        separator = '&';
+      }
+
+      List<String> literals = new ArrayList<>();
+      StringBuilder literal = new StringBuilder(baseUrl);
+      int position = 0;
+      while (position < path.length()) {
+        int open = path.indexOf('{', position);
+        if (open < 0) {
+          literal.append(path, position, path.length());
+          break;
+        }
+        int close = path.indexOf('}', open);
+        if (close < 0) {
+          throw new IllegalArgumentException("unclosed placeholder in " + path);
+        }
+        literal.append(path, position, open);
+        literals.add(literal.toString());
+        literal.setLength(0);
+        position = close + 1;
+      }
+      literals.add(literal.toString());
+      return new Endpoint(baseUrl + path + suffix, literals.toArray(new String[literals.size()]), suffix.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendProjection(StringBuilder sb, Map<String, Object> projection) {
+      sb.append('(');
+      boolean first = true;
+      for (Map.Entry<String, Object> field : projection.entrySet()) {
+        if (!first) {
+          sb.append(',');
+        }
+        first = false;
+        sb.append(field.getKey());
+        if (field.getValue() != null) {
+          sb.append(':');
+          appendProjection(sb, (Map<String, Object>) field.getValue());
+        }
+      }
+      sb.append(')');
+    }
+  }
+
+  /**
+   * Parses "name", "name:(a,b)" and comma separated lists of those into a sorted tree; a field
+   * maps to null, or to the tree of its nested projection.
+   */
+  private static class ProjectionParser {
+    private final String spec;
+    private int position;
+
+    ProjectionParser(String spec) {
+      this.spec = spec;
+    }
+
+    void parseInto(Map<String, Object> projection) {
+      parseList(projection);
+      if (position != spec.length()) {
+        throw error();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parseList(Map<String, Object> projection) {
+      while (true) {
+        String name = parseName();
+        Object nested = projection.get(name);
+        if (position < spec.length() && spec.charAt(position) == ':') {
+          position++;
+          expect('(');
+          Map<String, Object> children = nested instanceof Map ? (Map<String, Object>) nested
+              : new TreeMap<String, Object>();
+          parseList(children);
+          expect(')');
+          projection.put(name, children);
+        } else if (!projection.containsKey(name)) {
+          projection.put(name, null);
+        }
+        if (position >= spec.length() || spec.charAt(position) != ',') {
+          return;
+        }
+        position++;
+      }
+    }
+
+    private String parseName() {
+      int start = position;
+      while (position < spec.length() && "(),: ".indexOf(spec.charAt(position)) < 0) {
+        position++;
+      }
+      if (start == position) {
+        throw error();
+      }
+      return spec.substring(start, position);
+    }
+
+    private void expect(char c) {
+      if (position >= spec.length() || spec.charAt(position) != c) {
+        throw error();
+      }
+      position++;
+    }
+
+    private IllegalArgumentException error() {
+      return new IllegalArgumentException("invalid field projection at " + position + ": " + spec);
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GzipCodecTest {
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final int FLAG_HCRC = 0x02;
+  private static final int FLAG_EXTRA = 0x04;
+  private static final int FLAG_NAME = 0x08;
+  private static final int FLAG_COMMENT = 0x10;
+
+  @Test
+  public void encodeDecodeRoundTrip() throws IOException {
+    for (byte[] data : Arrays.asList(new byte[0], bytes("a"), text(100 * 1024), random(64 * 1024))) {
+      byte[] encoded = GzipCodec.encode(data);
+      assertArrayEquals(data, GzipCodec.decode(encoded));
+      assertArrayEquals(data, readAll(GzipCodec.decodingStream(new ByteArrayInputStream(encoded)), 4096));
+    }
+  }
+
+  @Test
+  public void encodeIsReadableByGzipInputStream() throws IOException {
+    byte[] data = text(50 * 1024);
+    assertArrayEquals(data, readAll(new GZIPInputStream(new ByteArrayInputStream(GzipCodec.encode(data))), 4096));
+  }
+
+  @Test
+  public void decodeGzipOutputStream() throws IOException {
+    byte[] data = text(300 * 1024);
+    byte[] encoded = gzip(data);
+    assertArrayEquals(data, GzipCodec.decode(encoded));
+    assertArrayEquals(data, readAll(GzipCodec.decodingStream(new ByteArrayInputStream(encoded)), 4096));
+  }
+
+  @Test
+  public void decodingStreamReadsSmallChunks() throws IOException {
+    byte[] data = text(20 * 1024);
+    InputStream in = GzipCodec.decodingStream(new TrickleInputStream(GzipCodec.encode(data)));
+    assertArrayEquals(data, readAll(in, 7));
+  }
+
+  @Test
+  public void decodeConcatenatedMembers() throws IOException {
+    byte[] first = text(10 * 1024);
+    byte[] second = bytes("second member");
+    byte[] encoded = concat(gzip(first), GzipCodec.encode(second), gzip(new byte[0]));
+    byte[] expected = concat(first, second);
+    assertArrayEquals(expected, GzipCodec.decode(encoded));
+    assertArrayEquals(expected, readAll(GzipCodec.decodingStream(new ByteArrayInputStream(encoded)), 4096));
+  }
+
+  @Test
+  public void decodeOptionalHeaderFields() throws IOException {
+    byte[] data = bytes("payload behind optional header fields");
+    byte[] encoded = withHeaderFields(gzip(data));
+    assertArrayEquals(data, GzipCodec.decode(encoded));
+    assertArrayEquals(data, readAll(GzipCodec.decodingStream(new ByteArrayInputStream(encoded)), 4096));
+  }
+
+  @Test
+  public void truncatedInputFails() {
+    byte[] first = withHeaderFields(gzip(text(8 * 1024)));
+    byte[] encoded = concat(first, gzip(bytes("tail")));
+    // inside the header, its optional fields, the deflate data and the trailer of either member
+    for (int length = 1; length < encoded.length; length++) {
+      if (length != first.length) {
+        assertDecodeFails(Arrays.copyOf(encoded, length));
+      }
+    }
+  }
+
+  @Test
+  public void checksumMismatchFails() {
+    byte[] encoded = gzip(text(1024));
+    encoded[encoded.length - 8] ^= 1;
+    assertDecodeFails(encoded);
+
+    encoded = gzip(text(1024));
+    encoded[encoded.length - 4] ^= 1;
+    assertDecodeFails(encoded);
+  }
+
+  @Test
+  public void notGzipFails() {
+    assertDecodeFails(bytes("{\"not\": \"gzip\"}"));
+    assertDecodeFails(concat(gzip(bytes("ok")), bytes("trailing garbage")));
+  }
+
+  @Test
+  public void isGzip() {
+    assertTrue(GzipCodec.isGzip(headers("Content-Encoding", "gzip")));
+    assertTrue(GzipCodec.isGzip(headers("Content-Encoding", " GZIP ")));
+    assertFalse(GzipCodec.isGzip(headers("Content-Encoding", "deflate")));
+    assertFalse(GzipCodec.isGzip(Collections.<String, String>emptyMap()));
+    assertFalse(GzipCodec.isGzip(null));
+  }
+
+  private static void assertDecodeFails(byte[] encoded) {
+    try {
+      GzipCodec.decode(encoded);
+      fail("decoded invalid gzip data of " + encoded.length + " bytes");
+    } catch (IOException expected) {
+      // invalid
+    }
+    try {
+      readAll(GzipCodec.decodingStream(new ByteArrayInputStream(encoded)), 4096);
+      fail("stream decoded invalid gzip data of " + encoded.length + " bytes");
+    } catch (IOException expected) {
+      // invalid
+    }
+  }
+
+  /**
+   * @return the member with FEXTRA, FNAME, FCOMMENT and FHCRC fields added to its header
+   */
+  private static byte[] withHeaderFields(byte[] member) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(member, 0, 3);
+    out.write(member[3] | FLAG_EXTRA | FLAG_NAME | FLAG_COMMENT | FLAG_HCRC);
+    out.write(member, 4, 6);
+    byte[] extra = {'L', 'I', 2, 0, 1, 2};
+    out.write(extra.length);
+    out.write(0);
+    out.write(extra, 0, extra.length);
+    byte[] name = bytes("response.json\0");
+    out.write(name, 0, name.length);
+    byte[] comment = bytes("comment\0");
+    out.write(comment, 0, comment.length);
+    // header crc, not checked
+    out.write(0);
+    out.write(0);
+    out.write(member, 10, member.length - 10);
+    return out.toByteArray();
+  }
+
+  private static byte[] gzip(byte[] data) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      GZIPOutputStream out = new GZIPOutputStream(bytes);
+      out.write(data);
+      out.close();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static byte[] readAll(InputStream in, int chunkSize) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[chunkSize];
+    try {
+      int count;
+      while ((count = in.read(buffer)) != -1) {
+        out.write(buffer, 0, count);
+      }
+    } finally {
+      in.close();
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.write(part, 0, part.length);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] text(int size) {
+    Random random = new Random(size);
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) ('a' + random.nextInt(16));
+    }
+    return data;
+  }
+
+  private static byte[] random(int size) {
+    byte[] data = new byte[size];
+    new Random(size).nextBytes(data);
+    return data;
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(UTF_8);
+  }
+
+  private static Map<String, String> headers(String name, String value) {
+    return Collections.singletonMap(name, value);
+  }
+
+  /**
+   * Returns at most one byte per read, as a slow connection may.
+   */
+  private static class TrickleInputStream extends InputStream {
+    private final byte[] data;
+    private int position;
+
+    TrickleInputStream(byte[] data) {
+      this.data = data;
+    }
+
+    @Override
+    public int read() {
+      return position < data.length ? data[position++] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+      if (position == data.length) {
+        return -1;
+      }
+      buffer[offset] = data[position++];
+      return 1;
+    }
+  }
+}
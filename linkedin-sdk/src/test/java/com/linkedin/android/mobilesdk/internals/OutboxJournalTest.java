@@ -0,0 +1,313 @@
+/*
+    Copyright 2014 LinkedIn Corp.
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+package com.linkedin.android.mobilesdk.internals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OutboxJournalTest {
+
+  private static final int POST = 1;
+  private static final int PUT = 2;
+  // [int length][int crc32]
+  private static final int HEADER_SIZE = 8;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+  private OutboxJournal journal;
+
+  @Before
+  public void setUp() throws IOException {
+    file = new File(folder.getRoot(), "outbox/journal");
+    journal = open();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    journal.close();
+  }
+
+  @Test
+  public void entriesSurviveReopening() throws IOException {
+    journal.append("key-1", POST, "https://api.linkedin.com/v1/people/~/shares", "{\"comment\":\"été\"}");
+    journal.append("key-2", PUT, "https://api.linkedin.com/v1/people/~", null);
+    journal.sync();
+
+    journal = reopen();
+    assertEquals(2, journal.getPendingCount());
+    List<OutboxJournal.Entry> entries = journal.readPending(10);
+    assertEquals(2, entries.size());
+    assertEntry(entries.get(0), 1, "key-1", POST, "https://api.linkedin.com/v1/people/~/shares",
+        "{\"comment\":\"été\"}");
+    assertEntry(entries.get(1), 2, "key-2", PUT, "https://api.linkedin.com/v1/people/~", null);
+  }
+
+  @Test
+  public void completedEntriesAreNotReadAgain() throws IOException {
+    appendAll(3);
+    journal.markDone(2);
+    journal.sync();
+    assertEquals(2, journal.getPendingCount());
+    assertSeqs(journal.readPending(10), 1, 3);
+
+    journal = reopen();
+    assertEquals(2, journal.getPendingCount());
+    assertSeqs(journal.readPending(10), 1, 3);
+  }
+
+  @Test
+  public void readPendingReturnsWindowsInOrder() throws IOException {
+    appendAll(5);
+    assertSeqs(journal.readPending(2), 1, 2);
+    assertSeqs(journal.readPending(2), 3, 4);
+    journal.append("late", POST, "url", null);
+    assertSeqs(journal.readPending(2), 5, 6);
+    assertTrue(journal.readPending(2).isEmpty());
+  }
+
+  @Test
+  public void seqsContinueAfterReopening() throws IOException {
+    appendAll(3);
+    journal.markDone(3);
+    journal.sync();
+
+    journal = reopen();
+    assertEquals(4, journal.append("next", POST, "url", null).seq);
+  }
+
+  @Test
+  public void tornTailIsCutOff() throws IOException {
+    appendAll(2);
+    journal.sync();
+    long intact = file.length();
+    journal.append("torn", POST, "url", "body");
+    journal.close();
+    // every length short of the whole last record, down to a partial frame header
+    for (long length = file.length() - 1; length > intact; length--) {
+      setLength(length);
+      journal = open();
+      assertEquals(intact, file.length());
+      assertEquals(2, journal.getPendingCount());
+      assertSeqs(journal.readPending(10), 1, 2);
+      journal.append("torn", POST, "url", "body");
+      journal.close();
+    }
+  }
+
+  @Test
+  public void appendsAfterATornTailAreReadable() throws IOException {
+    appendAll(2);
+    journal.close();
+    setLength(file.length() - 3);
+
+    journal = open();
+    OutboxJournal.Entry after = journal.append("after", POST, "url", null);
+    assertEquals(2, after.seq);
+    journal.sync();
+
+    journal = reopen();
+    List<OutboxJournal.Entry> entries = journal.readPending(10);
+    assertSeqs(entries, 1, 2);
+    assertEquals("after", entries.get(1).idempotencyKey);
+  }
+
+  @Test
+  public void corruptRecordAndEverythingAfterItAreDropped() throws IOException {
+    appendAll(3);
+    journal.close();
+    long secondRecord = recordLength(1);
+    // flip a payload byte of the second record, its checksum no longer matches
+    flipByte(secondRecord + HEADER_SIZE + 3);
+
+    journal = open();
+    assertEquals(secondRecord, file.length());
+    assertEquals(1, journal.getPendingCount());
+    assertSeqs(journal.readPending(10), 1);
+  }
+
+  @Test
+  public void invalidLengthEndsTheJournal() throws IOException {
+    appendAll(2);
+    journal.close();
+    long secondRecord = recordLength(1);
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.seek(secondRecord);
+      raf.writeInt(Integer.MAX_VALUE);
+    } finally {
+      raf.close();
+    }
+
+    journal = open();
+    assertEquals(secondRecord, file.length());
+    assertSeqs(journal.readPending(10), 1);
+  }
+
+  @Test
+  public void compactionKeepsPendingEntries() throws IOException {
+    appendAll(200);
+    for (long seq = 1; seq <= 150; seq++) {
+      journal.markDone(seq);
+    }
+    journal.sync();
+    long before = file.length();
+
+    journal.compactIfNeeded();
+    assertTrue(file.length() < before / 3);
+    assertEquals(50, journal.getPendingCount());
+    assertSeqs(journal.readPending(100), range(151, 200));
+
+    journal.append("after", POST, "url", null);
+    journal.sync();
+    journal = reopen();
+    assertEquals(51, journal.getPendingCount());
+    assertSeqs(journal.readPending(100), range(151, 201));
+  }
+
+  @Test
+  public void compactionWaitsForEnoughCompletedEntries() throws IOException {
+    appendAll(10);
+    journal.markDone(1);
+    journal.sync();
+    long before = file.length();
+
+    journal.compactIfNeeded();
+    assertEquals(before, file.length());
+  }
+
+  @Test
+  public void failedCompactionKeepsJournalWritable() throws IOException {
+    appendAll(200);
+    for (long seq = 1; seq <= 150; seq++) {
+      journal.markDone(seq);
+    }
+    journal.sync();
+    // a directory in the way of the compacted file makes the rewrite fail
+    File compacted = new File(file.getPath() + ".tmp");
+    assertTrue(compacted.mkdir());
+
+    try {
+      journal.compactIfNeeded();
+      fail("compaction should have failed");
+    } catch (IOException expected) {
+      // the journal is left as it was
+    }
+    journal.append("after", POST, "url", null);
+    journal.sync();
+    journal = reopen();
+    assertEquals(51, journal.getPendingCount());
+    assertSeqs(journal.readPending(100), range(151, 201));
+  }
+
+  private OutboxJournal open() throws IOException {
+    OutboxJournal opened = new OutboxJournal(file);
+    opened.open();
+    return opened;
+  }
+
+  private OutboxJournal reopen() throws IOException {
+    journal.close();
+    return open();
+  }
+
+  private void appendAll(int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      journal.append("key-" + i, POST, "https://api.linkedin.com/v1/people/~/shares", "{\"i\":" + i + "}");
+    }
+  }
+
+  /**
+   * @return total length of the first count records
+   */
+  private long recordLength(int count) throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      long offset = 0;
+      for (int i = 0; i < count; i++) {
+        raf.seek(offset);
+        offset += HEADER_SIZE + raf.readInt();
+      }
+      return offset;
+    } finally {
+      raf.close();
+    }
+  }
+
+  private void flipByte(long offset) throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.seek(offset);
+      int value = raf.read();
+      raf.seek(offset);
+      raf.write(value ^ 0xff);
+    } finally {
+      raf.close();
+    }
+  }
+
+  private void setLength(long length) throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.setLength(length);
+    } finally {
+      raf.close();
+    }
+  }
+
+  private static long[] range(long first, long last) {
+    long[] seqs = new long[(int) (last - first + 1)];
+    for (int i = 0; i < seqs.length; i++) {
+      seqs[i] = first + i;
+    }
+    return seqs;
+  }
+
+  private static void assertSeqs(List<OutboxJournal.Entry> entries, long... seqs) {
+    List<Long> actual = new ArrayList<>();
+    for (OutboxJournal.Entry entry : entries) {
+      actual.add(entry.seq);
+    }
+    List<Long> expected = new ArrayList<>();
+    for (long seq : seqs) {
+      expected.add(seq);
+    }
+    assertEquals(expected, actual);
+  }
+
+  private static void assertEntry(OutboxJournal.Entry entry, long seq, String key, int method, String url,
+                                  String body) {
+    assertEquals(seq, entry.seq);
+    assertEquals(key, entry.idempotencyKey);
+    assertEquals(method, entry.method);
+    assertEquals(url, entry.url);
+    assertEquals(body, entry.body);
+  }
+}